@@ -0,0 +1,54 @@
+package com.shubham.FlightManagementSystem.cache;
+
+import com.shubham.FlightManagementSystem.event.AirportChangedEvent;
+import com.shubham.FlightManagementSystem.event.FlightChangedEvent;
+import com.shubham.FlightManagementSystem.event.FlightsImportedEvent;
+import com.shubham.FlightManagementSystem.web.EntityTags;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// One counter per aggregate, bumped after every committed AirportService/FlightService write.
+// ETags are built from the counter plus the startup time, so a restart never reuses a tag, and
+// are weak and per representation (see EntityTags).
+// Read the tag before loading the data: a write landing in between only costs a spurious refetch.
+@Component
+public class AggregateVersions {
+    
+    private final long epoch = System.currentTimeMillis();
+    
+    private final AtomicLong airports = new AtomicLong();
+    
+    private final AtomicLong flights = new AtomicLong();
+    
+    public String airportsEtag(MediaType representation) {
+        return etag("airports", airports.get(), representation);
+    }
+    
+    public String flightsEtag(MediaType representation) {
+        return etag("flights", flights.get(), representation);
+    }
+    
+    @TransactionalEventListener
+    public void onAirportChanged(AirportChangedEvent event) {
+        airports.incrementAndGet();
+        // Flights embed their airports
+        flights.incrementAndGet();
+    }
+    
+    @TransactionalEventListener
+    public void onFlightChanged(FlightChangedEvent event) {
+        flights.incrementAndGet();
+    }
+    
+    @TransactionalEventListener
+    public void onFlightsImported(FlightsImportedEvent event) {
+        flights.incrementAndGet();
+    }
+    
+    private String etag(String aggregate, long version, MediaType representation) {
+        return EntityTags.weak(aggregate + "-" + Long.toString(epoch, 36) + "-" + version, representation);
+    }
+}
@@ -0,0 +1,133 @@
+package com.shubham.FlightManagementSystem.cache;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.event.AirportChangedEvent;
+import com.shubham.FlightManagementSystem.repository.AirportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Whole airports table held in memory, keyed by id and by code. Once warm it is complete,
+// so a miss means the airport does not exist; before that, lookups read through to the repository.
+@Component
+public class AirportCache {
+    
+    private static final Logger log = LoggerFactory.getLogger(AirportCache.class);
+    
+    @Autowired
+    private AirportRepository airportRepository;
+    
+    private final Map<Long, Airport> byId = new ConcurrentHashMap<>();
+    
+    private final Map<String, Airport> byCode = new ConcurrentHashMap<>();
+    
+    private final LongAdder hits = new LongAdder();
+    
+    private final LongAdder misses = new LongAdder();
+    
+    private volatile boolean warm;
+    
+    // Sorted view handed out by getAll, rebuilt lazily after a change
+    private volatile List<Airport> all;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warmUp() {
+        byId.clear();
+        byCode.clear();
+        for (Airport airport : airportRepository.findAll()) {
+            put(AirportChangedEvent.snapshotOf(airport));
+        }
+        all = null;
+        warm = true;
+        log.info("Airport cache warmed with {} airports", byId.size());
+    }
+    
+    public Optional<Airport> getById(Long id) {
+        Airport airport = byId.get(id);
+        if (airport != null || warm) {
+            hits.increment();
+            return Optional.ofNullable(airport);
+        }
+        misses.increment();
+        return airportRepository.findById(id).map(this::load);
+    }
+    
+    public Optional<Airport> getByCode(String code) {
+        Airport airport = byCode.get(code);
+        if (airport != null || warm) {
+            hits.increment();
+            return Optional.ofNullable(airport);
+        }
+        misses.increment();
+        return airportRepository.findByCode(code).map(this::load);
+    }
+    
+    public boolean exists(String code) {
+        return getByCode(code).isPresent();
+    }
+    
+    public List<Airport> getAll() {
+        if (!warm) {
+            misses.increment();
+            return airportRepository.findAll();
+        }
+        hits.increment();
+        List<Airport> snapshot = all;
+        if (snapshot == null) {
+            List<Airport> sorted = new ArrayList<>(byId.values());
+            sorted.sort(Comparator.comparing(Airport::getId));
+            snapshot = List.copyOf(sorted);
+            all = snapshot;
+        }
+        return snapshot;
+    }
+    
+    @TransactionalEventListener
+    public synchronized void onAirportChanged(AirportChangedEvent event) {
+        switch (event.type()) {
+            case SAVED -> put(event.snapshot());
+            case DELETED -> remove(event.airportId());
+        }
+        all = null;
+    }
+    
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), byId.size(), warm);
+    }
+    
+    private synchronized Airport load(Airport airport) {
+        Airport snapshot = AirportChangedEvent.snapshotOf(airport);
+        put(snapshot);
+        all = null;
+        return snapshot;
+    }
+    
+    private void put(Airport airport) {
+        Airport previous = byId.put(airport.getId(), airport);
+        if (previous != null && !previous.getCode().equals(airport.getCode())) {
+            byCode.remove(previous.getCode(), previous);
+        }
+        byCode.put(airport.getCode(), airport);
+    }
+    
+    private void remove(Long id) {
+        Airport previous = byId.remove(id);
+        if (previous != null) {
+            byCode.remove(previous.getCode(), previous);
+        }
+    }
+    
+    public record Stats(long hits, long misses, int size, boolean warm) {}
+}
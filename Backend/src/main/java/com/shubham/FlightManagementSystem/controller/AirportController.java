@@ -1,12 +1,23 @@
 package com.shubham.FlightManagementSystem.controller;
 
+import com.shubham.FlightManagementSystem.cache.AggregateVersions;
+import com.shubham.FlightManagementSystem.cache.AirportCache;
 import com.shubham.FlightManagementSystem.entity.Airport;
 import com.shubham.FlightManagementSystem.service.AirportService;
+import com.shubham.FlightManagementSystem.web.EntityTags;
+import com.shubham.FlightManagementSystem.web.KeysetCursor;
+import com.shubham.FlightManagementSystem.web.NdjsonResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,10 +30,38 @@ public class AirportController {
     @Autowired
     private AirportService airportService;
     
+    @Autowired
+    private AggregateVersions aggregateVersions;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     @GetMapping
-    public ResponseEntity<List<Airport>> getAllAirports() {
-        List<Airport> airports = airportService.getAllAirports();
-        return ResponseEntity.ok(airports);
+    public ResponseEntity<List<Airport>> getAllAirports(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        if (limit == null) {
+            // A matching If-None-Match is answered with 304 before anything is loaded or serialized
+            String etag = aggregateVersions.airportsEtag(EntityTags.representationOf(request));
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            List<Airport> airports = airportService.getAllAirports();
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).varyBy(HttpHeaders.ACCEPT).body(airports);
+        }
+        int pageSize = KeysetCursor.pageSize(limit);
+        try {
+            List<Airport> airports = airportService.getAirportsPage(KeysetCursor.idOf(cursor), pageSize);
+            return KeysetCursor.page(airports, pageSize, last -> KeysetCursor.ofId(last.getId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllAirports() {
+        return NdjsonResponses.<Airport>stream(objectMapper, airportService::streamAllAirports);
     }
     
     @GetMapping("/{id}")
@@ -57,6 +96,19 @@ public class AirportController {
         return ResponseEntity.ok(airports);
     }
     
+    // Typeahead for the search box; answered from memory, never from the database
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Airport>> suggestAirports(@RequestParam String q,
+                                                         @RequestParam(defaultValue = "10") Integer limit) {
+        List<Airport> airports = airportService.suggestAirports(q, Math.min(limit, 50));
+        return ResponseEntity.ok(airports);
+    }
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<AirportCache.Stats> getCacheStats() {
+        return ResponseEntity.ok(airportService.getCacheStats());
+    }
+    
     @PostMapping
     public ResponseEntity<Airport> createAirport(@Valid @RequestBody Airport airport) {
         if (airportService.airportExists(airport.getCode())) {
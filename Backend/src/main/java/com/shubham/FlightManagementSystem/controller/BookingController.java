@@ -2,13 +2,25 @@ package com.shubham.FlightManagementSystem.controller;
 
 import com.shubham.FlightManagementSystem.entity.Booking;
 import com.shubham.FlightManagementSystem.entity.Booking.BookingStatus;
+import com.shubham.FlightManagementSystem.idempotency.IdempotencyKeyReuseException;
+import com.shubham.FlightManagementSystem.idempotency.IdempotencyStore;
+import com.shubham.FlightManagementSystem.journal.BookingJournal;
+import com.shubham.FlightManagementSystem.journal.JournalState;
+import com.shubham.FlightManagementSystem.readmodel.FlightReadModel;
 import com.shubham.FlightManagementSystem.service.BookingService;
+import com.shubham.FlightManagementSystem.web.KeysetCursor;
+import com.shubham.FlightManagementSystem.web.NdjsonResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,13 +29,43 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:4200")
 public class BookingController {
     
+    private static final int MAX_BATCH_SIZE = 1000;
+    
     @Autowired
     private BookingService bookingService;
     
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private BookingJournal bookingJournal;
+    
+    @Autowired
+    private FlightReadModel flightReadModel;
+    
     @GetMapping
-    public ResponseEntity<List<Booking>> getAllBookings() {
-        List<Booking> bookings = bookingService.getAllBookings();
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<Booking>> getAllBookings(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        if (limit == null) {
+            List<Booking> bookings = bookingService.getAllBookings();
+            return ResponseEntity.ok(bookings);
+        }
+        int pageSize = KeysetCursor.pageSize(limit);
+        try {
+            List<Booking> bookings = bookingService.getBookingsPage(KeysetCursor.idOf(cursor), pageSize);
+            return KeysetCursor.page(bookings, pageSize, last -> KeysetCursor.ofId(last.getId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllBookings() {
+        return NdjsonResponses.<Booking>stream(objectMapper, bookingService::streamAllBookings);
     }
     
     @GetMapping("/{id}")
@@ -70,17 +112,81 @@ public class BookingController {
         return ResponseEntity.ok(bookings);
     }
     
+    // Seats reserved per flight and booking statuses rebuilt from the journal as of a point in time
+    @GetMapping("/journal")
+    public ResponseEntity<JournalState> replayJournal(@RequestParam(required = false) LocalDateTime at) {
+        if (!bookingJournal.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        long upTo = at == null ? Long.MAX_VALUE : at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return ResponseEntity.ok(bookingJournal.replay(upTo));
+    }
+    
     @GetMapping("/search")
-    public ResponseEntity<List<Booking>> searchBookings(@RequestParam String keyword) {
-        List<Booking> bookings = bookingService.searchBookings(keyword);
+    public ResponseEntity<List<Booking>> searchBookings(@RequestParam String keyword,
+                                                        @RequestParam(defaultValue = "0") Integer page,
+                                                        @RequestParam(defaultValue = "50") Integer size) {
+        List<Booking> bookings = bookingService.searchBookings(keyword, Math.max(page, 0), Math.min(Math.max(size, 1), 100));
         return ResponseEntity.ok(bookings);
     }
     
+    // Retries carrying the same Idempotency-Key get the first attempt's booking back
     @PostMapping
-    public ResponseEntity<Booking> createBooking(@Valid @RequestBody Booking booking) {
+    public ResponseEntity<Booking> createBooking(@Valid @RequestBody Booking booking,
+                                                 @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        try {
+            Booking savedBooking;
+            if (idempotencyKey == null || idempotencyKey.isBlank()) {
+                savedBooking = bookingService.createBooking(booking);
+            } else if (idempotencyKey.length() > 255) {
+                return ResponseEntity.badRequest().build();
+            } else {
+                String fingerprint = idempotencyStore.fingerprintOf(booking);
+                LocalDateTime expiresAt = LocalDateTime.now().plus(idempotencyStore.getTtl());
+                savedBooking = idempotencyStore.execute(idempotencyKey, fingerprint,
+                        () -> bookingService.createBooking(booking, idempotencyKey, fingerprint, expiresAt));
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).header(FlightReadModel.TOKEN_HEADER, flightReadModel.currentToken()).body(savedBooking);
+        } catch (IdempotencyKeyReuseException e) {
+            return ResponseEntity.unprocessableEntity().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Seats stay reserved as a PENDING booking until confirmed or until flight.holds.ttl passes
+    @PostMapping("/hold")
+    public ResponseEntity<Booking> holdBooking(@Valid @RequestBody Booking booking) {
+        try {
+            Booking heldBooking = bookingService.holdBooking(booking);
+            return ResponseEntity.status(HttpStatus.CREATED).header(FlightReadModel.TOKEN_HEADER, flightReadModel.currentToken()).body(heldBooking);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // 409 when the booking exists but is no longer a live hold
+    @PutMapping("/{id}/confirm")
+    public ResponseEntity<Booking> confirmBooking(@PathVariable Long id) {
+        Optional<Booking> booking = bookingService.confirmHold(id);
+        if (booking.isPresent()) {
+            return ResponseEntity.ok().header(FlightReadModel.TOKEN_HEADER, flightReadModel.currentToken()).body(booking.get());
+        }
+        return bookingService.getBookingById(id).isPresent()
+                ? ResponseEntity.status(HttpStatus.CONFLICT).build()
+                : ResponseEntity.notFound().build();
+    }
+    
+    @PostMapping("/batch")
+    public ResponseEntity<BookingService.BatchResult> createBookings(
+            @RequestBody List<Booking> bookings,
+            @RequestParam(defaultValue = "ATOMIC") BookingService.BatchMode mode) {
+        if (bookings.isEmpty() || bookings.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            Booking savedBooking = bookingService.createBooking(booking);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedBooking);
+            BookingService.BatchResult result = bookingService.createBookings(bookings, mode);
+            return ResponseEntity.status(HttpStatus.CREATED).header(FlightReadModel.TOKEN_HEADER, flightReadModel.currentToken()).body(result);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -90,7 +196,7 @@ public class BookingController {
     public ResponseEntity<Booking> updateBooking(@PathVariable Long id, @Valid @RequestBody Booking booking) {
         try {
             Booking updatedBooking = bookingService.updateBooking(id, booking);
-            return ResponseEntity.ok(updatedBooking);
+            return ResponseEntity.ok().header(FlightReadModel.TOKEN_HEADER, flightReadModel.currentToken()).body(updatedBooking);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -99,12 +205,12 @@ public class BookingController {
     @PutMapping("/{id}/cancel")
     public ResponseEntity<Void> cancelBooking(@PathVariable Long id) {
         bookingService.cancelBooking(id);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok().header(FlightReadModel.TOKEN_HEADER, flightReadModel.currentToken()).build();
     }
     
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteBooking(@PathVariable Long id) {
         bookingService.deleteBooking(id);
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.noContent().header(FlightReadModel.TOKEN_HEADER, flightReadModel.currentToken()).build();
     }
 }
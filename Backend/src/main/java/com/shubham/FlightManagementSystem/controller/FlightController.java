@@ -1,68 +1,167 @@
 package com.shubham.FlightManagementSystem.controller;
 
+import com.shubham.FlightManagementSystem.cache.AggregateVersions;
 import com.shubham.FlightManagementSystem.entity.Flight;
 import com.shubham.FlightManagementSystem.entity.Flight.FlightStatus;
+import com.shubham.FlightManagementSystem.index.FlightSearchIndex;
+import com.shubham.FlightManagementSystem.readmodel.FlightReadModel;
+import com.shubham.FlightManagementSystem.service.FlightImportService;
 import com.shubham.FlightManagementSystem.service.FlightService;
+import com.shubham.FlightManagementSystem.stream.FlightEventHub;
+import com.shubham.FlightManagementSystem.web.EntityTags;
+import com.shubham.FlightManagementSystem.web.KeysetCursor;
+import com.shubham.FlightManagementSystem.web.NdjsonResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/flights")
 @CrossOrigin(origins = "http://localhost:4200")
 public class FlightController {
     
+    private static final int MAX_PATCH_IDS = 1000;
+    
     @Autowired
     private FlightService flightService;
     
+    @Autowired
+    private FlightImportService flightImportService;
+    
+    @Autowired
+    private AggregateVersions aggregateVersions;
+    
+    @Autowired
+    private FlightEventHub flightEventHub;
+    
+    @Autowired
+    private FlightReadModel flightReadModel;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Without a limit the whole table is returned as before; with one, pages follow X-Next-Cursor.
+    // Read endpoints answer from FlightReadModel when it can serve them; pages always come from the table.
+    // Send the X-Consistency-Token from a write response to read that write back.
     @GetMapping
-    public ResponseEntity<List<Flight>> getAllFlights() {
-        List<Flight> flights = flightService.getAllFlights();
-        return ResponseEntity.ok(flights);
+    public ResponseEntity<List<Flight>> getAllFlights(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestHeader(value = FlightReadModel.TOKEN_HEADER, required = false) Long consistencyToken) {
+        if (limit == null) {
+            List<Flight> flights = flightReadModel.canServe(consistencyToken)
+                    ? flightReadModel.getAllFlights()
+                    : flightService.getAllFlights();
+            return ResponseEntity.ok(flights);
+        }
+        int pageSize = KeysetCursor.pageSize(limit);
+        try {
+            if ("departureTime".equals(sort)) {
+                List<Flight> flights = flightService.getFlightsPageByDepartureTime(KeysetCursor.departureTimeOf(cursor), pageSize);
+                return KeysetCursor.page(flights, pageSize,
+                        last -> KeysetCursor.ofDepartureTime(last.getDepartureTime(), last.getId()));
+            }
+            List<Flight> flights = flightService.getFlightsPage(KeysetCursor.idOf(cursor), pageSize);
+            return KeysetCursor.page(flights, pageSize, last -> KeysetCursor.ofId(last.getId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllFlights() {
+        return NdjsonResponses.<Flight>stream(objectMapper, flightService::streamAllFlights);
+    }
+    
+    // Server-sent seat and status changes as they commit; see FlightUpdate for the payload
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamFlightUpdates(@RequestParam(required = false) Set<Long> flightIds) {
+        return flightEventHub.subscribe(flightIds);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Flight> getFlightById(@PathVariable Long id) {
-        Optional<Flight> flight = flightService.getFlightById(id);
+    public ResponseEntity<Flight> getFlightById(
+            @PathVariable Long id,
+            @RequestHeader(value = FlightReadModel.TOKEN_HEADER, required = false) Long consistencyToken) {
+        Optional<Flight> flight = flightReadModel.canServe(consistencyToken)
+                ? flightReadModel.getFlightById(id)
+                : flightService.getFlightById(id);
         return flight.map(ResponseEntity::ok)
                     .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/number/{flightNumber}")
-    public ResponseEntity<Flight> getFlightByNumber(@PathVariable String flightNumber) {
-        Optional<Flight> flight = flightService.getFlightByNumber(flightNumber);
+    public ResponseEntity<Flight> getFlightByNumber(
+            @PathVariable String flightNumber,
+            @RequestHeader(value = FlightReadModel.TOKEN_HEADER, required = false) Long consistencyToken) {
+        Optional<Flight> flight = flightReadModel.canServe(consistencyToken)
+                ? flightReadModel.getFlightByNumber(flightNumber)
+                : flightService.getFlightByNumber(flightNumber);
         return flight.map(ResponseEntity::ok)
                     .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/departure/{airportCode}")
-    public ResponseEntity<List<Flight>> getFlightsByDepartureAirport(@PathVariable String airportCode) {
-        List<Flight> flights = flightService.getFlightsByDepartureAirport(airportCode);
+    public ResponseEntity<List<Flight>> getFlightsByDepartureAirport(
+            @PathVariable String airportCode,
+            @RequestHeader(value = FlightReadModel.TOKEN_HEADER, required = false) Long consistencyToken) {
+        List<Flight> flights = flightReadModel.canServe(consistencyToken)
+                ? flightReadModel.getFlightsByDepartureAirport(airportCode)
+                : flightService.getFlightsByDepartureAirport(airportCode);
         return ResponseEntity.ok(flights);
     }
     
     @GetMapping("/arrival/{airportCode}")
-    public ResponseEntity<List<Flight>> getFlightsByArrivalAirport(@PathVariable String airportCode) {
-        List<Flight> flights = flightService.getFlightsByArrivalAirport(airportCode);
+    public ResponseEntity<List<Flight>> getFlightsByArrivalAirport(
+            @PathVariable String airportCode,
+            @RequestHeader(value = FlightReadModel.TOKEN_HEADER, required = false) Long consistencyToken) {
+        List<Flight> flights = flightReadModel.canServe(consistencyToken)
+                ? flightReadModel.getFlightsByArrivalAirport(airportCode)
+                : flightService.getFlightsByArrivalAirport(airportCode);
         return ResponseEntity.ok(flights);
     }
     
     @GetMapping("/available")
-    public ResponseEntity<List<Flight>> getAvailableFlights() {
-        List<Flight> flights = flightService.getAvailableFlights();
-        return ResponseEntity.ok(flights);
+    public ResponseEntity<List<Flight>> getAvailableFlights(
+            WebRequest request,
+            @RequestHeader(value = FlightReadModel.TOKEN_HEADER, required = false) Long consistencyToken) {
+        // Same conditional handling as GET /api/airports: no query when the client is current.
+        // The read model tags by what it has applied, as its body can trail the commit counter.
+        boolean fromReadModel = flightReadModel.canServe(consistencyToken);
+        MediaType representation = EntityTags.representationOf(request);
+        String etag = fromReadModel ? flightReadModel.etag(representation) : aggregateVersions.flightsEtag(representation);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<Flight> flights = fromReadModel ? flightReadModel.getAvailableFlights() : flightService.getAvailableFlights();
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).varyBy(HttpHeaders.ACCEPT).body(flights);
     }
     
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Flight>> getFlightsByStatus(@PathVariable FlightStatus status) {
-        List<Flight> flights = flightService.getFlightsByStatus(status);
+    public ResponseEntity<List<Flight>> getFlightsByStatus(
+            @PathVariable FlightStatus status,
+            @RequestHeader(value = FlightReadModel.TOKEN_HEADER, required = false) Long consistencyToken) {
+        List<Flight> flights = flightReadModel.canServe(consistencyToken)
+                ? flightReadModel.getFlightsByStatus(status)
+                : flightService.getFlightsByStatus(status);
         return ResponseEntity.ok(flights);
     }
     
@@ -71,12 +170,25 @@ public class FlightController {
             @RequestParam String departureCode,
             @RequestParam String arrivalCode,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departureDate,
-            @RequestParam(defaultValue = "1") Integer seats) {
+            @RequestParam(defaultValue = "1") Integer seats,
+            @RequestHeader(value = FlightReadModel.TOKEN_HEADER, required = false) Long consistencyToken) {
         
-        List<Flight> flights = flightService.searchFlights(departureCode, arrivalCode, departureDate, seats);
+        List<Flight> flights = flightReadModel.canServe(consistencyToken)
+                ? flightReadModel.searchFlights(departureCode, arrivalCode, departureDate, seats)
+                : flightService.searchFlights(departureCode, arrivalCode, departureDate, seats);
         return ResponseEntity.ok(flights);
     }
     
+    @GetMapping("/search-index/consistency")
+    public ResponseEntity<FlightSearchIndex.ConsistencyReport> checkSearchIndex(
+            @RequestParam(defaultValue = "false") boolean repair) {
+        try {
+            return ResponseEntity.ok(flightService.checkSearchIndex(repair));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     @PostMapping
     public ResponseEntity<Flight> createFlight(@Valid @RequestBody Flight flight) {
         if (flightService.flightExists(flight.getFlightNumber())) {
@@ -84,7 +196,22 @@ public class FlightController {
         }
         try {
             Flight savedFlight = flightService.saveFlight(flight);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedFlight);
+            return ResponseEntity.status(HttpStatus.CREATED).header(FlightReadModel.TOKEN_HEADER, flightReadModel.currentToken()).body(savedFlight);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Streams a CSV (with a header row) or NDJSON schedule; bad rows are reported, not fatal
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<FlightImportService.ImportReport> importFlights(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) throws IOException {
+        FlightImportService.Format format = contentType.startsWith("text/csv")
+                ? FlightImportService.Format.CSV
+                : FlightImportService.Format.NDJSON;
+        try {
+            FlightImportService.ImportReport report = flightImportService.importFlights(body, format);
+            return ResponseEntity.ok().header(FlightReadModel.TOKEN_HEADER, flightReadModel.currentToken()).body(report);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -94,27 +221,50 @@ public class FlightController {
     public ResponseEntity<Flight> updateFlight(@PathVariable Long id, @Valid @RequestBody Flight flight) {
         try {
             Flight updatedFlight = flightService.updateFlight(id, flight);
-            return ResponseEntity.ok(updatedFlight);
+            return ResponseEntity.ok().header(FlightReadModel.TOKEN_HEADER, flightReadModel.currentToken()).body(updatedFlight);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
     
+    // Only the fields sent are changed, e.g. {"status":"DELAYED","departureTime":"..."}
+    @PatchMapping("/{id}")
+    public ResponseEntity<Flight> patchFlight(@PathVariable Long id, @RequestBody FlightService.FlightPatch patch) {
+        try {
+            return flightService.patchFlight(id, patch)
+                    .map(flight -> ResponseEntity.ok().header(FlightReadModel.TOKEN_HEADER, flightReadModel.currentToken()).body(flight))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Status and/or a time shift for up to 1000 flights in one statement,
+    // e.g. {"ids":[1,2,3],"status":"DELAYED","shiftMinutes":45}
+    @PatchMapping
+    public ResponseEntity<FlightService.BulkPatchResult> patchFlights(@RequestBody FlightService.BulkFlightPatch patch) {
+        if (patch.ids() == null || patch.ids().isEmpty() || patch.ids().size() > MAX_PATCH_IDS
+                || (patch.status() == null && (patch.shiftMinutes() == null || patch.shiftMinutes() == 0))) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            FlightService.BulkPatchResult result = flightService.patchFlights(patch);
+            return ResponseEntity.ok().header(FlightReadModel.TOKEN_HEADER, flightReadModel.currentToken()).body(result);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteFlight(@PathVariable Long id) {
         flightService.deleteFlight(id);
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.noContent().header(FlightReadModel.TOKEN_HEADER, flightReadModel.currentToken()).build();
     }
     
     @PutMapping("/{id}/status")
     public ResponseEntity<Flight> updateFlightStatus(@PathVariable Long id, @RequestParam FlightStatus status) {
-        Optional<Flight> optionalFlight = flightService.getFlightById(id);
-        if (optionalFlight.isPresent()) {
-            Flight flight = optionalFlight.get();
-            flight.setStatus(status);
-            Flight updatedFlight = flightService.updateFlight(id, flight);
-            return ResponseEntity.ok(updatedFlight);
-        }
-        return ResponseEntity.notFound().build();
+        return flightService.updateFlightStatus(id, status)
+                .map(flight -> ResponseEntity.ok().header(FlightReadModel.TOKEN_HEADER, flightReadModel.currentToken()).body(flight))
+                .orElse(ResponseEntity.notFound().build());
     }
 }
@@ -0,0 +1,34 @@
+package com.shubham.FlightManagementSystem.controller;
+
+import com.shubham.FlightManagementSystem.routing.Itinerary;
+import com.shubham.FlightManagementSystem.routing.ItineraryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/itineraries")
+@CrossOrigin(origins = "http://localhost:4200")
+public class ItineraryController {
+    
+    @Autowired
+    private ItineraryService itineraryService;
+    
+    @GetMapping("/search")
+    public ResponseEntity<List<Itinerary>> searchItineraries(
+            @RequestParam String departureCode,
+            @RequestParam String arrivalCode,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departureDate,
+            @RequestParam(defaultValue = "1") Integer seats,
+            @RequestParam(defaultValue = "3") Integer maxLegs,
+            @RequestParam(defaultValue = "5") Integer limit) {
+        
+        List<Itinerary> itineraries = itineraryService.searchItineraries(departureCode, arrivalCode, departureDate,
+                seats, maxLegs, Math.min(limit, 20));
+        return ResponseEntity.ok(itineraries);
+    }
+}
@@ -14,8 +14,10 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Booking {
     
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 100)
     private Long id;
     
     @NotBlank(message = "Booking reference is required")
@@ -40,6 +42,7 @@ public class Booking {
     @Column(nullable = false)
     private String phoneNumber;
     
+    @NotNull(message = "Number of seats is required")
     @Positive(message = "Number of seats must be positive")
     @Column(nullable = false)
     private Integer numberOfSeats;
@@ -55,6 +58,9 @@ public class Booking {
     @Column(nullable = false)
     private LocalDateTime bookingDate = LocalDateTime.now();
     
+    // Set while the booking is a PENDING seat hold; the seats are released once it passes
+    private LocalDateTime holdExpiresAt;
+    
     // Default constructor
     public Booking() {}
     
@@ -151,6 +157,14 @@ public class Booking {
         this.bookingDate = bookingDate;
     }
     
+    public LocalDateTime getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+    
+    public void setHoldExpiresAt(LocalDateTime holdExpiresAt) {
+        this.holdExpiresAt = holdExpiresAt;
+    }
+    
     @Override
     public String toString() {
         return "Booking{" +
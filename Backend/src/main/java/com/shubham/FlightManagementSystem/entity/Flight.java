@@ -6,15 +6,22 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
+// Updates write only the columns that changed, so a status change is a one-column UPDATE
 @Entity
 @Table(name = "flights")
+@DynamicUpdate
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Flight {
     
+    // Sequence ids so schedule imports can batch their inserts, as for Booking
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "flights_seq")
+    @SequenceGenerator(name = "flights_seq", sequenceName = "flights_seq", allocationSize = 100)
     private Long id;
     
     @NotBlank(message = "Flight number is required")
@@ -59,6 +66,13 @@ public class Flight {
     @Column(nullable = false)
     private FlightStatus status = FlightStatus.SCHEDULED;
     
+    // Bumped by the seat reservation and release UPDATEs, and never written from the entity, so
+    // listeners can tell an older seat count from a newer one (see SeatCount)
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private long seatVersion;
+    
     // Default constructor
     public Flight() {}
     
@@ -150,6 +164,14 @@ public class Flight {
         this.availableSeats = availableSeats;
     }
     
+    public long getSeatVersion() {
+        return seatVersion;
+    }
+    
+    public void setSeatVersion(long seatVersion) {
+        this.seatVersion = seatVersion;
+    }
+    
     public BigDecimal getPrice() {
         return price;
     }
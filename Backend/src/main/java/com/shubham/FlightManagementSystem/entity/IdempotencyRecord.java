@@ -0,0 +1,101 @@
+package com.shubham.FlightManagementSystem.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Durable half of the Idempotency-Key store, written in the same transaction as the booking it names
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expiresAt"))
+public class IdempotencyRecord implements Persistable<String> {
+    
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+    
+    // Hash of the request the key was first used with
+    @Column(nullable = false, length = 64)
+    private String requestFingerprint;
+    
+    @Column(nullable = false)
+    private Long bookingId;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // The key is assigned, so without this save() would merge over a record another node just committed
+    @Transient
+    private boolean isNew = true;
+    
+    // Default constructor
+    public IdempotencyRecord() {}
+    
+    // Constructor with parameters
+    public IdempotencyRecord(String idempotencyKey, String requestFingerprint, Long bookingId, LocalDateTime expiresAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.requestFingerprint = requestFingerprint;
+        this.bookingId = bookingId;
+        this.expiresAt = expiresAt;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+    
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+    
+    // Getters and Setters
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
+    public String getRequestFingerprint() {
+        return requestFingerprint;
+    }
+    
+    public void setRequestFingerprint(String requestFingerprint) {
+        this.requestFingerprint = requestFingerprint;
+    }
+    
+    public Long getBookingId() {
+        return bookingId;
+    }
+    
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
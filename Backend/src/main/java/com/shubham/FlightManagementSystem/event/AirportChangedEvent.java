@@ -0,0 +1,25 @@
+package com.shubham.FlightManagementSystem.event;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+
+// Published by AirportService inside the writing transaction; listeners act on it after commit
+public record AirportChangedEvent(Type type, Long airportId, Airport snapshot) {
+    
+    public static AirportChangedEvent saved(Airport airport) {
+        return new AirportChangedEvent(Type.SAVED, airport.getId(), snapshotOf(airport));
+    }
+    
+    public static AirportChangedEvent deleted(Long airportId) {
+        return new AirportChangedEvent(Type.DELETED, airportId, null);
+    }
+    
+    public static Airport snapshotOf(Airport airport) {
+        Airport copy = new Airport(airport.getCode(), airport.getName(), airport.getCity(), airport.getCountry());
+        copy.setId(airport.getId());
+        return copy;
+    }
+    
+    public enum Type {
+        SAVED, DELETED
+    }
+}
@@ -0,0 +1,40 @@
+package com.shubham.FlightManagementSystem.event;
+
+import com.shubham.FlightManagementSystem.entity.Flight;
+
+// Published by FlightService inside the writing transaction; listeners act on it after commit
+public record FlightChangedEvent(Type type, Long flightId, Flight snapshot, int seatDelta, SeatCount seats) {
+    
+    public static FlightChangedEvent saved(Flight flight) {
+        return new FlightChangedEvent(Type.SAVED, flight.getId(), snapshotOf(flight), 0, null);
+    }
+    
+    public static FlightChangedEvent deleted(Long flightId) {
+        return new FlightChangedEvent(Type.DELETED, flightId, null, 0, null);
+    }
+    
+    // seats is the count this change commits, which a listener can set however often or late it
+    // arrives; null when only the delta is known (the seat inventory, whose counters run ahead of commits)
+    public static FlightChangedEvent seatsChanged(Long flightId, int seatDelta, SeatCount seats) {
+        return new FlightChangedEvent(Type.SEATS, flightId, null, seatDelta, seats);
+    }
+
+    
+    // Detached copy so listeners never touch the persistence context after commit
+    public static Flight snapshotOf(Flight flight) {
+        Flight copy = new Flight(flight.getFlightNumber(),
+                AirportChangedEvent.snapshotOf(flight.getDepartureAirport()),
+                AirportChangedEvent.snapshotOf(flight.getArrivalAirport()),
+                flight.getDepartureTime(), flight.getArrivalTime(), flight.getAircraftType(),
+                flight.getTotalSeats(), flight.getPrice());
+        copy.setId(flight.getId());
+        copy.setAvailableSeats(flight.getAvailableSeats());
+        copy.setSeatVersion(flight.getSeatVersion());
+        copy.setStatus(flight.getStatus());
+        return copy;
+    }
+    
+    public enum Type {
+        SAVED, DELETED, SEATS
+    }
+}
@@ -0,0 +1,8 @@
+package com.shubham.FlightManagementSystem.event;
+
+import com.shubham.FlightManagementSystem.entity.Flight;
+
+import java.util.List;
+
+// One event per committed import chunk, so listeners can merge thousands of new flights at once
+public record FlightsImportedEvent(List<Flight> snapshots) {}
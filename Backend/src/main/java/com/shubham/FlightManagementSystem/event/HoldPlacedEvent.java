@@ -0,0 +1,6 @@
+package com.shubham.FlightManagementSystem.event;
+
+import java.time.LocalDateTime;
+
+// A PENDING booking that gives its seats back at expiresAt unless it is confirmed first
+public record HoldPlacedEvent(Long bookingId, LocalDateTime expiresAt) {}
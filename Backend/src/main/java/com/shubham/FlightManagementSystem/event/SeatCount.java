@@ -0,0 +1,13 @@
+package com.shubham.FlightManagementSystem.event;
+
+import com.shubham.FlightManagementSystem.entity.Flight;
+
+// A flight's free seats as of one seat change. The version goes up by one with every reservation or
+// release, so of two counts for a flight the one with the higher version is the later.
+public record SeatCount(int availableSeats, long version) {
+    
+    // Whether this count is at least as recent as the one a listener already holds for the flight
+    public boolean supersedes(Flight current) {
+        return version >= current.getSeatVersion();
+    }
+}
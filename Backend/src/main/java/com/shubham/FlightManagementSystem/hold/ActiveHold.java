@@ -0,0 +1,5 @@
+package com.shubham.FlightManagementSystem.hold;
+
+import java.time.LocalDateTime;
+
+public record ActiveHold(Long bookingId, LocalDateTime expiresAt) {}
@@ -0,0 +1,134 @@
+package com.shubham.FlightManagementSystem.hold;
+
+import com.shubham.FlightManagementSystem.event.HoldPlacedEvent;
+import com.shubham.FlightManagementSystem.repository.BookingRepository;
+import com.shubham.FlightManagementSystem.service.BookingService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Releases the seats of PENDING holds once they expire. Live holds sit in a timing wheel in
+// memory, rebuilt from the bookings table on startup, so nothing scans for stale rows; the
+// expiry itself re-checks each booking under a row lock, so confirmed or cancelled holds
+// still in the wheel are simply skipped.
+@Component
+public class HoldExpirer {
+    
+    // 256 slots on 4 levels: with 100 ms ticks a hold up to 13 years out needs no overflow handling
+    private static final int WHEEL_BITS = 8;
+    
+    private static final int WHEEL_LEVELS = 4;
+    
+    private static final Logger log = LoggerFactory.getLogger(HoldExpirer.class);
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private BookingService bookingService;
+    
+    @Value("${flight.holds.tick-ms:100}")
+    private long tickMs;
+    
+    @Value("${flight.holds.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${flight.holds.retry-delay-ms:5000}")
+    private long retryDelayMs;
+    
+    private TimingWheel wheel;
+    
+    private ScheduledExecutorService ticker;
+    
+    @PostConstruct
+    void init() {
+        wheel = new TimingWheel(tickMs, WHEEL_BITS, WHEEL_LEVELS, System.currentTimeMillis());
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<ActiveHold> holds = bookingRepository.findActiveHolds();
+        synchronized (this) {
+            for (ActiveHold hold : holds) {
+                wheel.add(hold.bookingId(), epochMillis(hold.expiresAt()));
+            }
+        }
+        log.info("Hold expirer restored {} active holds", holds.size());
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hold-expirer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::expireQuietly, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+    
+    // Only committed holds are tracked; a rolled-back one never had its seats taken
+    @TransactionalEventListener
+    public synchronized void onHoldPlaced(HoldPlacedEvent event) {
+        wheel.add(event.bookingId(), epochMillis(event.expiresAt()));
+    }
+    
+    public synchronized int activeHolds() {
+        return wheel.size();
+    }
+    
+    // Expires everything due, one transaction per batch; a failed batch goes back into the
+    // wheel to be retried after retry-delay-ms
+    public int expireDue() {
+        List<Long> due = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(System.currentTimeMillis(), due::add);
+        }
+        int expired = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                expired += bookingService.expireHolds(batch);
+            } catch (RuntimeException e) {
+                log.warn("Expiring {} holds failed, retrying in {} ms", batch.size(), retryDelayMs, e);
+                long retryAt = System.currentTimeMillis() + retryDelayMs;
+                synchronized (this) {
+                    batch.forEach(id -> wheel.add(id, retryAt));
+                }
+            }
+        }
+        if (expired > 0) {
+            log.debug("Expired {} seat holds", expired);
+        }
+        return expired;
+    }
+    
+    private void expireQuietly() {
+        try {
+            expireDue();
+        } catch (RuntimeException e) {
+            log.warn("Hold expiry run failed", e);
+        }
+    }
+    
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,126 @@
+package com.shubham.FlightManagementSystem.hold;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// Hierarchical timing wheel over booking ids. Level 0 has one slot per tick; every slot of
+// level n spans a full turn of level n - 1 and is cascaded down when that turn starts. Adding
+// is O(1) and a tick only touches the slots that are due, so the cost of expiry follows the
+// number of holds expiring rather than the number held. Not thread-safe.
+final class TimingWheel {
+    
+    private final long tickMs;
+    
+    private final int bits;
+    
+    private final int mask;
+    
+    private final Slot[][] levels;
+    
+    // Ticks since the epoch that have been processed
+    private long currentTick;
+    
+    private int size;
+    
+    TimingWheel(long tickMs, int wheelBits, int levelCount, long nowMs) {
+        this.tickMs = tickMs;
+        this.bits = wheelBits;
+        this.mask = (1 << wheelBits) - 1;
+        this.levels = new Slot[levelCount][1 << wheelBits];
+        for (Slot[] level : levels) {
+            for (int i = 0; i < level.length; i++) {
+                level[i] = new Slot();
+            }
+        }
+        this.currentTick = nowMs / tickMs;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    // A deadline that is already due fires on the next advance
+    void add(long id, long deadlineMs) {
+        place(id, Math.max(Math.floorDiv(deadlineMs + tickMs - 1, tickMs), currentTick + 1));
+        size++;
+    }
+    
+    // Hands every id whose deadline is at or before nowMs to expired
+    void advance(long nowMs, LongConsumer expired) {
+        long target = nowMs / tickMs;
+        while (currentTick < target) {
+            currentTick++;
+            // Higher levels first, so an entry can fall through several levels in one tick
+            for (int level = levels.length - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (level * bits)) - 1)) == 0) {
+                    Slot slot = levels[level][(int) (currentTick >>> (level * bits)) & mask];
+                    slot.drain((id, deadlineTick) -> {
+                        if (deadlineTick <= currentTick) {
+                            size--;
+                            expired.accept(id);
+                        } else {
+                            place(id, deadlineTick);
+                        }
+                    });
+                }
+            }
+            levels[0][(int) currentTick & mask].drain((id, deadlineTick) -> {
+                size--;
+                expired.accept(id);
+            });
+        }
+    }
+    
+    private void place(long id, long deadlineTick) {
+        long delta = deadlineTick - currentTick;
+        int level = 0;
+        while (level < levels.length - 1 && delta >= 1L << ((level + 1) * bits)) {
+            level++;
+        }
+        // Past the top level's span the entry goes round again and is placed anew when cascaded
+        levels[level][(int) (deadlineTick >>> (level * bits)) & mask].add(id, deadlineTick);
+    }
+    
+    private interface EntryConsumer {
+        void accept(long id, long deadlineTick);
+    }
+    
+    // Growable parallel arrays, so a million holds cost 16 bytes each rather than a node apiece
+    private static final class Slot {
+        
+        private static final long[] EMPTY = new long[0];
+        
+        private long[] ids = EMPTY;
+        
+        private long[] deadlines = EMPTY;
+        
+        private int count;
+        
+        void add(long id, long deadlineTick) {
+            if (count == ids.length) {
+                int capacity = Math.max(4, count * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                deadlines = Arrays.copyOf(deadlines, capacity);
+            }
+            ids[count] = id;
+            deadlines[count] = deadlineTick;
+            count++;
+        }
+        
+        // Detaches the entries first, since consumer may add to this same slot
+        void drain(EntryConsumer consumer) {
+            if (count == 0) {
+                return;
+            }
+            long[] drainedIds = ids;
+            long[] drainedDeadlines = deadlines;
+            int drained = count;
+            ids = EMPTY;
+            deadlines = EMPTY;
+            count = 0;
+            for (int i = 0; i < drained; i++) {
+                consumer.accept(drainedIds[i], drainedDeadlines[i]);
+            }
+        }
+    }
+}
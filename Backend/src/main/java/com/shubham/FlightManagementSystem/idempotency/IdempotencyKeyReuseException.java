@@ -0,0 +1,9 @@
+package com.shubham.FlightManagementSystem.idempotency;
+
+// The key was already used with a different request body
+public class IdempotencyKeyReuseException extends RuntimeException {
+    
+    public IdempotencyKeyReuseException(String idempotencyKey) {
+        super("Idempotency-Key already used for a different request: " + idempotencyKey);
+    }
+}
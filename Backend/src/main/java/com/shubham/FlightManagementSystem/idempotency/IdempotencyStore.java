@@ -0,0 +1,165 @@
+package com.shubham.FlightManagementSystem.idempotency;
+
+import com.shubham.FlightManagementSystem.entity.Booking;
+import com.shubham.FlightManagementSystem.entity.IdempotencyRecord;
+import com.shubham.FlightManagementSystem.repository.BookingRepository;
+import com.shubham.FlightManagementSystem.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Results of POST /api/bookings by Idempotency-Key. Concurrent retries wait on the first
+// execution, later ones are answered from memory, and after a restart from idempotency_keys,
+// which the booking transaction writes alongside the booking. Failed executions are not kept.
+@Component
+public class IdempotencyStore {
+    
+    public static final String HEADER = "Idempotency-Key";
+    
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+    
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Value("${flight.idempotency.ttl:PT24H}")
+    private Duration ttl;
+    
+    @Value("${flight.idempotency.max-entries:100000}")
+    private int maxEntries;
+    
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    public Duration getTtl() {
+        return ttl;
+    }
+    
+    // Runs action at most once per key while the key is live; action must write the
+    // IdempotencyRecord in the same transaction as the booking it creates
+    public Booking execute(String key, String fingerprint, Supplier<Booking> action) {
+        while (true) {
+            long now = System.currentTimeMillis();
+            Entry existing = entries.get(key);
+            if (existing != null && existing.expiresAt() > now) {
+                if (!existing.fingerprint().equals(fingerprint)) {
+                    throw new IdempotencyKeyReuseException(key);
+                }
+                return await(existing.result());
+            }
+            Entry mine = new Entry(fingerprint, new CompletableFuture<>(), now + ttl.toMillis());
+            boolean claimed = existing == null
+                    ? entries.putIfAbsent(key, mine) == null
+                    : entries.replace(key, existing, mine);
+            if (!claimed) {
+                continue;
+            }
+            trimIfFull();
+            try {
+                Booking booking = findDurable(key, fingerprint).orElseGet(() -> runOnce(key, fingerprint, action));
+                mine.result().complete(booking);
+                return booking;
+            } catch (RuntimeException e) {
+                entries.remove(key, mine);
+                mine.result().completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+    
+    public String fingerprintOf(Booking booking) {
+        String request = String.join("\u0000",
+                String.valueOf(booking.getFlight() == null ? null : booking.getFlight().getId()),
+                String.valueOf(booking.getPassengerName()), String.valueOf(booking.getEmail()),
+                String.valueOf(booking.getPhoneNumber()), String.valueOf(booking.getNumberOfSeats()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${flight.idempotency.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now && entry.result().isDone());
+        int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Removed {} expired idempotency keys", deleted);
+        }
+    }
+    
+    private Booking runOnce(String key, String fingerprint, Supplier<Booking> action) {
+        try {
+            return action.get();
+        } catch (DataIntegrityViolationException e) {
+            // Another node committed the same key first
+            return findDurable(key, fingerprint).orElseThrow(() -> e);
+        }
+    }
+    
+    private Optional<Booking> findDurable(String key, String fingerprint) {
+        Optional<IdempotencyRecord> found = idempotencyRecordRepository.findById(key);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        IdempotencyRecord record = found.get();
+        if (record.getExpiresAt().isBefore(LocalDateTime.now())) {
+            idempotencyRecordRepository.delete(record);
+            return Optional.empty();
+        }
+        if (!record.getRequestFingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReuseException(key);
+        }
+        return Optional.of(bookingRepository.findById(record.getBookingId())
+                .orElseThrow(() -> new RuntimeException("Booking for Idempotency-Key no longer exists: " + key)));
+    }
+    
+    // Completed entries are dropped first when the map outgrows its bound; the table still has them
+    private void trimIfFull() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now && entry.result().isDone());
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries * 9L / 10 && iterator.hasNext()) {
+            if (iterator.next().result().isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+    
+    private static Booking await(CompletableFuture<Booking> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private record Entry(String fingerprint, CompletableFuture<Booking> result, long expiresAt) {}
+}
@@ -0,0 +1,190 @@
+package com.shubham.FlightManagementSystem.index;
+
+import com.shubham.FlightManagementSystem.cache.AirportCache;
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.event.AirportChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+// Typeahead over airport code, city, name and country: a sorted token map answers prefixes,
+// a trigram map answers substrings. Ranking is exact code, then prefix, then substring.
+@Component
+public class AirportSuggestIndex {
+    
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    
+    private static final int EXACT_CODE = 0;
+    private static final int PREFIX = 1;
+    private static final int SUBSTRING = 2;
+    
+    @Autowired
+    private AirportCache airportCache;
+    
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    
+    private final ConcurrentSkipListMap<String, Set<Long>> tokens = new ConcurrentSkipListMap<>();
+    
+    private final Map<String, Set<Long>> trigrams = new ConcurrentHashMap<>();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        for (Long id : new ArrayList<>(entries.keySet())) {
+            remove(id);
+        }
+        for (Airport airport : airportCache.getAll()) {
+            add(airport);
+        }
+    }
+    
+    public List<Airport> suggest(String query, int limit) {
+        String q = normalize(query).trim();
+        if (q.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> ranks = new HashMap<>();
+        for (Set<Long> ids : tokens.subMap(q, true, q + Character.MAX_VALUE, true).values()) {
+            for (Long id : ids) {
+                ranks.merge(id, PREFIX, Math::min);
+            }
+        }
+        for (Long id : tokens.getOrDefault(q, Set.of())) {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.code().equals(q)) {
+                ranks.put(id, EXACT_CODE);
+            }
+        }
+        if (q.length() >= 3) {
+            for (Long id : substringCandidates(q)) {
+                Entry entry = entries.get(id);
+                if (entry != null && entry.text().contains(q)) {
+                    ranks.putIfAbsent(id, SUBSTRING);
+                }
+            }
+        }
+        List<Entry> matches = new ArrayList<>(ranks.size());
+        for (Long id : ranks.keySet()) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                matches.add(entry);
+            }
+        }
+        matches.sort(Comparator.<Entry>comparingInt(entry -> ranks.get(entry.airport().getId()))
+                .thenComparing(entry -> entry.airport().getName()));
+        List<Airport> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            result.add(matches.get(i).airport());
+        }
+        return result;
+    }
+    
+    @TransactionalEventListener
+    public synchronized void onAirportChanged(AirportChangedEvent event) {
+        remove(event.airportId());
+        if (event.type() == AirportChangedEvent.Type.SAVED) {
+            add(event.snapshot());
+        }
+    }
+    
+    private Set<Long> substringCandidates(String q) {
+        Set<Long> candidates = null;
+        for (String trigram : trigramsOf(q)) {
+            Set<Long> ids = trigrams.get(trigram);
+            if (ids == null) {
+                return Set.of();
+            }
+            if (candidates == null) {
+                candidates = new HashSet<>(ids);
+            } else {
+                candidates.retainAll(ids);
+            }
+        }
+        return candidates == null ? Set.of() : candidates;
+    }
+    
+    private void add(Airport airport) {
+        String code = normalize(airport.getCode());
+        String text = String.join(" ", code, normalize(airport.getCity()),
+                normalize(airport.getName()), normalize(airport.getCountry()));
+        Entry entry = new Entry(airport, code, text);
+        entries.put(airport.getId(), entry);
+        for (String token : tokensOf(entry)) {
+            tokens.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(airport.getId());
+        }
+        for (String trigram : trigramsOf(text)) {
+            trigrams.computeIfAbsent(trigram, key -> ConcurrentHashMap.newKeySet()).add(airport.getId());
+        }
+    }
+    
+    private void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String token : tokensOf(entry)) {
+            unlink(tokens, token, id);
+        }
+        for (String trigram : trigramsOf(entry.text())) {
+            unlink(trigrams, trigram, id);
+        }
+    }
+    
+    private static void unlink(Map<String, Set<Long>> map, String key, Long id) {
+        map.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+    
+    // Every word of every field, plus each whole field so "new y" finds "new york"
+    private static Set<String> tokensOf(Entry entry) {
+        Set<String> result = new LinkedHashSet<>();
+        result.add(entry.code());
+        Airport airport = entry.airport();
+        for (String field : new String[] {airport.getCity(), airport.getName(), airport.getCountry()}) {
+            String normalized = normalize(field).trim();
+            result.add(normalized);
+            for (String word : SEPARATORS.split(normalized)) {
+                if (!word.isEmpty()) {
+                    result.add(word);
+                }
+            }
+        }
+        return result;
+    }
+    
+    private static Set<String> trigramsOf(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            result.add(text.substring(i, i + 3));
+        }
+        return result;
+    }
+    
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+    
+    private record Entry(Airport airport, String code, String text) {}
+}
@@ -0,0 +1,240 @@
+package com.shubham.FlightManagementSystem.index;
+
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.event.FlightChangedEvent;
+import com.shubham.FlightManagementSystem.event.FlightsImportedEvent;
+import com.shubham.FlightManagementSystem.event.SeatCount;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// In-process copy of the flights table laid out for FlightRepository.searchFlights:
+// one departure-time ordered skip list per route. Reads are lock-free, writes are
+// applied after commit by a single writer at a time. Seat counts are set from versioned
+// SeatCounts, so an event that a rebuild already read, or that arrives late, changes nothing.
+@Component
+public class FlightSearchIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(FlightSearchIndex.class);
+    
+    @Autowired
+    private FlightRepository flightRepository;
+    
+    @Value("${flight.search-index.enabled:false}")
+    private boolean enabled;
+    
+    private volatile Map<String, ConcurrentSkipListMap<EntryKey, Flight>> routes = new ConcurrentHashMap<>();
+    
+    // Where each flight currently sits, so a route or time change can unlink the old entry
+    private volatile Map<Long, Location> locations = new ConcurrentHashMap<>();
+    
+    private volatile boolean ready;
+    
+    public boolean isReady() {
+        return enabled && ready;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+    
+    public synchronized void rebuild() {
+        List<Flight> flights = flightRepository.findAllWithAirports();
+        Map<String, ConcurrentSkipListMap<EntryKey, Flight>> newRoutes = new ConcurrentHashMap<>();
+        Map<Long, Location> newLocations = new ConcurrentHashMap<>();
+        for (Flight flight : flights) {
+            Flight snapshot = FlightChangedEvent.snapshotOf(flight);
+            Location location = locationOf(snapshot);
+            newRoutes.computeIfAbsent(location.route(), route -> new ConcurrentSkipListMap<>())
+                     .put(location.key(), snapshot);
+            newLocations.put(snapshot.getId(), location);
+        }
+        routes = newRoutes;
+        locations = newLocations;
+        ready = true;
+        log.info("Flight search index built with {} flights on {} routes", newLocations.size(), newRoutes.size());
+    }
+    
+    // Same contract as FlightRepository.searchFlights
+    public List<Flight> search(String departureCode, String arrivalCode, LocalDateTime departureDate, Integer seats) {
+        List<Flight> result = new ArrayList<>();
+        ConcurrentSkipListMap<EntryKey, Flight> route = routes.get(routeOf(departureCode, arrivalCode));
+        if (route == null) {
+            return result;
+        }
+        for (Flight flight : route.tailMap(new EntryKey(departureDate, Long.MIN_VALUE)).values()) {
+            if (flight.getAvailableSeats() >= seats) {
+                result.add(flight);
+            }
+        }
+        return result;
+    }
+    
+    @TransactionalEventListener
+    public void onFlightChanged(FlightChangedEvent event) {
+        if (enabled) {
+            apply(event);
+        }
+    }
+    
+    @TransactionalEventListener
+    public synchronized void onFlightsImported(FlightsImportedEvent event) {
+        if (enabled) {
+            event.snapshots().forEach(this::put);
+        }
+    }
+    
+    synchronized void apply(FlightChangedEvent event) {
+        switch (event.type()) {
+            case SAVED -> put(keepingNewerSeats(event.snapshot()));
+            case DELETED -> {
+                Location previous = locations.remove(event.flightId());
+                if (previous != null) {
+                    unlink(previous);
+                }
+            }
+            case SEATS -> {
+                Flight current = indexed(event.flightId());
+                SeatCount seats = event.seats();
+                if (current == null || (seats != null && !seats.supersedes(current))) {
+                    return;
+                }
+                Flight updated = FlightChangedEvent.snapshotOf(current);
+                if (seats == null) {
+                    updated.setAvailableSeats(current.getAvailableSeats() + event.seatDelta());
+                } else {
+                    updated.setAvailableSeats(seats.availableSeats());
+                    updated.setSeatVersion(seats.version());
+                }
+                put(updated);
+            }
+        }
+    }
+    
+    // Compares every persisted flight with its indexed copy; with repair the index is rebuilt
+    // from the repository when anything differs. The comparison holds the writer's monitor, so it
+    // never sees a flight halfway through a move, and a copy whose seat count is newer than the
+    // table's (a change that committed after the query) is not stale.
+    public ConsistencyReport checkConsistency(boolean repair) {
+        List<Flight> persisted = flightRepository.findAllWithAirports();
+        int missing = 0;
+        int stale = 0;
+        int orphaned;
+        synchronized (this) {
+            Map<Long, Location> unmatched = new HashMap<>(locations);
+            for (Flight flight : persisted) {
+                Location location = unmatched.remove(flight.getId());
+                if (location == null) {
+                    missing++;
+                    continue;
+                }
+                ConcurrentSkipListMap<EntryKey, Flight> route = routes.get(location.route());
+                Flight indexed = route == null ? null : route.get(location.key());
+                if (indexed == null || !sameSearchFields(indexed, flight) || !sameOrNewerSeats(indexed, flight)) {
+                    stale++;
+                }
+            }
+            orphaned = unmatched.size();
+        }
+        boolean consistent = missing == 0 && stale == 0 && orphaned == 0;
+        if (!consistent) {
+            log.warn("Flight search index out of sync: {} missing, {} stale, {} orphaned", missing, stale, orphaned);
+            if (repair) {
+                rebuild();
+            }
+        }
+        return new ConsistencyReport(persisted.size(), missing, stale, orphaned, !consistent && repair);
+    }
+    
+    private Flight indexed(Long flightId) {
+        Location location = locations.get(flightId);
+        ConcurrentSkipListMap<EntryKey, Flight> route = location == null ? null : routes.get(location.route());
+        return route == null ? null : route.get(location.key());
+    }
+    
+    // A snapshot read before a later seat change committed must not take those seats back
+    private Flight keepingNewerSeats(Flight snapshot) {
+        Flight current = indexed(snapshot.getId());
+        if (current == null || current.getSeatVersion() <= snapshot.getSeatVersion()) {
+            return snapshot;
+        }
+        Flight updated = FlightChangedEvent.snapshotOf(snapshot);
+        updated.setAvailableSeats(current.getAvailableSeats());
+        updated.setSeatVersion(current.getSeatVersion());
+        return updated;
+    }
+    
+    private void put(Flight flight) {
+        Location location = locationOf(flight);
+        routes.computeIfAbsent(location.route(), route -> new ConcurrentSkipListMap<>())
+              .put(location.key(), flight);
+        Location previous = locations.put(flight.getId(), location);
+        if (previous != null && !previous.equals(location)) {
+            unlink(previous);
+        }
+    }
+    
+    private void unlink(Location location) {
+        ConcurrentSkipListMap<EntryKey, Flight> route = routes.get(location.route());
+        if (route != null) {
+            route.remove(location.key());
+        }
+    }
+    
+    private static boolean sameSearchFields(Flight indexed, Flight persisted) {
+        return Objects.equals(indexed.getFlightNumber(), persisted.getFlightNumber())
+                && Objects.equals(indexed.getDepartureAirport().getCode(), persisted.getDepartureAirport().getCode())
+                && Objects.equals(indexed.getArrivalAirport().getCode(), persisted.getArrivalAirport().getCode())
+                && Objects.equals(indexed.getDepartureTime(), persisted.getDepartureTime())
+                && Objects.equals(indexed.getArrivalTime(), persisted.getArrivalTime())
+                && Objects.equals(indexed.getTotalSeats(), persisted.getTotalSeats())
+                && indexed.getPrice().compareTo(persisted.getPrice()) == 0
+                && indexed.getStatus() == persisted.getStatus();
+    }
+    
+    private static boolean sameOrNewerSeats(Flight indexed, Flight persisted) {
+        return indexed.getSeatVersion() > persisted.getSeatVersion()
+                || (indexed.getSeatVersion() == persisted.getSeatVersion()
+                    && Objects.equals(indexed.getAvailableSeats(), persisted.getAvailableSeats()));
+    }
+    
+    private static Location locationOf(Flight flight) {
+        return new Location(routeOf(flight.getDepartureAirport().getCode(), flight.getArrivalAirport().getCode()),
+                new EntryKey(flight.getDepartureTime(), flight.getId()));
+    }
+    
+    private static String routeOf(String departureCode, String arrivalCode) {
+        return departureCode + "-" + arrivalCode;
+    }
+    
+    private record Location(String route, EntryKey key) {}
+    
+    private record EntryKey(LocalDateTime departureTime, Long flightId) implements Comparable<EntryKey> {
+        
+        @Override
+        public int compareTo(EntryKey other) {
+            int byTime = departureTime.compareTo(other.departureTime);
+            return byTime != 0 ? byTime : Long.compare(flightId, other.flightId);
+        }
+    }
+    
+    public record ConsistencyReport(int persistedFlights, int missing, int stale, int orphaned, boolean repaired) {}
+}
@@ -0,0 +1,217 @@
+package com.shubham.FlightManagementSystem.inventory;
+
+import com.shubham.FlightManagementSystem.event.FlightChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Seat counts held in memory for every flight that has been booked against, with the
+// flights table updated behind them in batches. Committed bookings are the durable record:
+// on startup available_seats is recomputed from them, so unflushed deltas lost in a crash
+// are recovered. While enabled, available_seats in the database lags by up to one flush.
+@Component
+public class SeatInventory {
+    
+    private static final Logger log = LoggerFactory.getLogger(SeatInventory.class);
+    
+    private static final String RECONCILE_SQL =
+            "UPDATE flights SET available_seats = total_seats - COALESCE((SELECT SUM(b.number_of_seats) " +
+            "FROM bookings b WHERE b.flight_id = flights.id AND b.status IN ('CONFIRMED', 'PENDING', 'COMPLETED')), 0)";
+    
+    private static final String FLUSH_SQL = "UPDATE flights SET available_seats = available_seats + ? WHERE id = ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${flight.inventory.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${flight.inventory.flush-interval-ms:200}")
+    private long flushIntervalMs;
+    
+    // 0 sizes the stripes to the number of cores
+    @Value("${flight.inventory.stripes:0}")
+    private int stripes;
+    
+    private final Map<Long, StripedSeatCounter> counters = new ConcurrentHashMap<>();
+    
+    // Committed seat changes not yet written to the flights table
+    private final Map<Long, LongAdder> unflushed = new ConcurrentHashMap<>();
+    
+    private ScheduledExecutorService flusher;
+    
+    private volatile boolean ready;
+    
+    public boolean isReady() {
+        return enabled && ready;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        int reconciled = jdbcTemplate.update(RECONCILE_SQL);
+        log.info("Seat inventory reconciled {} flights from bookings", reconciled);
+        if (stripes <= 0) {
+            stripes = Runtime.getRuntime().availableProcessors();
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seat-inventory-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        ready = true;
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            ready = false;
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flush();
+        }
+    }
+    
+    // Takes the seats immediately; they come back if the surrounding transaction rolls back,
+    // and reach the database only once it commits
+    public boolean reserve(Long flightId, int seats) {
+        StripedSeatCounter counter = counterFor(flightId);
+        if (counter == null || !counter.reserve(seats)) {
+            return false;
+        }
+        afterCompletion(committed -> {
+            if (committed) {
+                record(flightId, -seats);
+            } else {
+                counter.release(seats);
+            }
+        });
+        return true;
+    }
+    
+    // Released seats become bookable when the releasing transaction commits
+    public boolean release(Long flightId, int seats) {
+        StripedSeatCounter counter = counterFor(flightId);
+        if (counter == null || counter.available() + seats > counter.totalSeats()) {
+            return false;
+        }
+        afterCompletion(committed -> {
+            if (committed && counter.release(seats)) {
+                record(flightId, seats);
+            }
+        });
+        return true;
+    }
+    
+    public Integer availableSeats(Long flightId) {
+        StripedSeatCounter counter = counters.get(flightId);
+        return counter == null ? null : counter.available();
+    }
+    
+    @TransactionalEventListener
+    public void onFlightChanged(FlightChangedEvent event) {
+        switch (event.type()) {
+            case SAVED -> {
+                StripedSeatCounter counter = counters.get(event.flightId());
+                if (counter != null) {
+                    counter.setTotalSeats(event.snapshot().getTotalSeats());
+                }
+            }
+            case DELETED -> {
+                counters.remove(event.flightId());
+                unflushed.remove(event.flightId());
+            }
+            case SEATS -> {
+                // Deltas published by this inventory are already counted
+            }
+        }
+    }
+    
+    // Writes the pending deltas as one JDBC batch; a failed batch is put back for the next run
+    public synchronized int flush() {
+        List<Object[]> batch = new ArrayList<>();
+        unflushed.forEach((flightId, delta) -> {
+            long seats = delta.sumThenReset();
+            if (seats != 0) {
+                batch.add(new Object[] {seats, flightId});
+            }
+        });
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+        } catch (RuntimeException e) {
+            for (Object[] row : batch) {
+                record((Long) row[1], (Long) row[0]);
+            }
+            throw e;
+        }
+        return batch.size();
+    }
+    
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Seat inventory flush failed, retrying next run", e);
+        }
+    }
+    
+    private StripedSeatCounter counterFor(Long flightId) {
+        StripedSeatCounter counter = counters.get(flightId);
+        if (counter != null) {
+            return counter;
+        }
+        // Loaded under the map's bin lock so a flight's counter is only ever read from the database once
+        return counters.computeIfAbsent(flightId, id -> jdbcTemplate.query(
+                "SELECT available_seats, total_seats FROM flights WHERE id = ?",
+                rs -> rs.next() ? new StripedSeatCounter(rs.getInt(1), rs.getInt(2), stripes) : null, id));
+    }
+    
+    private void record(Long flightId, long seats) {
+        unflushed.computeIfAbsent(flightId, id -> new LongAdder()).add(seats);
+    }
+    
+    private static void afterCompletion(CompletionAction action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.completed(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.completed(status == STATUS_COMMITTED);
+            }
+        });
+    }
+    
+    private interface CompletionAction {
+        void completed(boolean committed);
+    }
+}
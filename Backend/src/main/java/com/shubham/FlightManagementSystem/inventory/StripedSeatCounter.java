@@ -0,0 +1,81 @@
+package com.shubham.FlightManagementSystem.inventory;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// A flight's free seats split across stripes so concurrent reservations CAS different cache lines.
+// A reservation that no single stripe can cover drains all stripes under the lock and re-spreads them.
+final class StripedSeatCounter {
+    
+    // Ints per stripe, keeping every stripe on its own 64-byte cache line
+    private static final int PADDING = 16;
+    
+    private final AtomicIntegerArray cells;
+    private final int mask;
+    private volatile int totalSeats;
+    
+    StripedSeatCounter(int availableSeats, int totalSeats, int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.cells = new AtomicIntegerArray(size * PADDING);
+        this.mask = size - 1;
+        this.totalSeats = totalSeats;
+        spread(availableSeats);
+    }
+    
+    boolean reserve(int seats) {
+        int home = (int) Thread.currentThread().threadId() & mask;
+        for (int i = 0; i <= mask; i++) {
+            int index = ((home + i) & mask) * PADDING;
+            int current = cells.get(index);
+            while (current >= seats) {
+                if (cells.compareAndSet(index, current, current - seats)) {
+                    return true;
+                }
+                current = cells.get(index);
+            }
+        }
+        return rebalanceAndReserve(seats);
+    }
+    
+    // Releases take the lock so the total-seats guard cannot race another release
+    synchronized boolean release(int seats) {
+        if (available() + seats > totalSeats) {
+            return false;
+        }
+        int home = (int) Thread.currentThread().threadId() & mask;
+        cells.addAndGet(home * PADDING, seats);
+        return true;
+    }
+    
+    int available() {
+        int sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+    
+    int totalSeats() {
+        return totalSeats;
+    }
+    
+    void setTotalSeats(int totalSeats) {
+        this.totalSeats = totalSeats;
+    }
+    
+    private synchronized boolean rebalanceAndReserve(int seats) {
+        int drained = 0;
+        for (int i = 0; i <= mask; i++) {
+            drained += cells.getAndSet(i * PADDING, 0);
+        }
+        boolean reserved = drained >= seats;
+        spread(reserved ? drained - seats : drained);
+        return reserved;
+    }
+    
+    private void spread(int seats) {
+        int stripes = mask + 1;
+        for (int i = 0; i < stripes; i++) {
+            cells.addAndGet(i * PADDING, seats / stripes + (i < seats % stripes ? 1 : 0));
+        }
+    }
+}
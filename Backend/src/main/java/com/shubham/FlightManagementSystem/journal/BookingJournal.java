@@ -0,0 +1,316 @@
+package com.shubham.FlightManagementSystem.journal;
+
+import com.shubham.FlightManagementSystem.journal.JournalEvent.Type;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Append-only log of booking changes in fixed-size records spread over preallocated,
+// memory-mapped segment files. An append is a copy into the mapping under a short lock; a
+// flusher thread forces the mapping once for every group of appends (group commit), and
+// callers that need durability wait for it. Events are appended only after their transaction
+// commits, so the journal replays to committed state, but it is a best-effort audit log rather
+// than a source of truth: a crash between a commit and its append loses those events. JournalAudit
+// compares the recovered state with the bookings table on startup.
+@Component
+public class BookingJournal {
+    
+    private static final Logger log = LoggerFactory.getLogger(BookingJournal.class);
+    
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    
+    @Value("${flight.journal.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${flight.journal.directory:data/journal}")
+    private Path directory;
+    
+    @Value("${flight.journal.segment-bytes:67108864}")
+    private int segmentBytes;
+    
+    // Whether committing threads wait for their events to be forced to disk
+    @Value("${flight.journal.sync:true}")
+    private boolean sync;
+    
+    @Value("${flight.journal.max-commit-delay-ms:2}")
+    private long maxCommitDelayMs;
+    
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition appended = syncLock.newCondition();
+    private final Condition forced = syncLock.newCondition();
+    
+    private MappedByteBuffer segment;
+    private int position;
+    private long nextSequence = 1;
+    private final List<MappedByteBuffer> unforcedSegments = new ArrayList<>();
+    
+    private volatile long lastAppended;
+    private volatile long lastDurable;
+    
+    private volatile JournalState recovered;
+    
+    private Thread flusher;
+    private volatile boolean running;
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    // Finds the end of the log, which is also a full replay, then starts the group-commit flusher
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        JournalState state = new JournalState();
+        List<Path> segments = segments();
+        long started = System.nanoTime();
+        for (Path path : segments) {
+            MappedByteBuffer mapped = map(path, FileChannel.MapMode.READ_WRITE);
+            int end = scan(mapped, Long.MAX_VALUE, state::apply);
+            segment = mapped;
+            position = end;
+        }
+        nextSequence = state.getLastSequence() + 1;
+        lastAppended = state.getLastSequence();
+        lastDurable = lastAppended;
+        if (segment == null) {
+            segment = map(segmentPath(nextSequence), FileChannel.MapMode.READ_WRITE);
+            position = 0;
+        }
+        recovered = state;
+        log.info("Booking journal replayed {} events from {} segments in {} ms", state.getEvents(), segments.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        running = true;
+        flusher = new Thread(this::flushLoop, "booking-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+    
+    @PreDestroy
+    void close() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+        force();
+    }
+    
+    // Appends after the surrounding transaction commits and, with sync on, waits for the disk.
+    // Outside a transaction the event is appended immediately.
+    public void record(Type type, Long bookingId, Long flightId, int seats) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            appendAndWait(type, bookingId, flightId, seats);
+            return;
+        }
+        // Every afterCommit runs before any afterCompletion, so a transaction's events are all
+        // appended before its first wait and share one force
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long sequence;
+            
+            @Override
+            public void afterCommit() {
+                sequence = append(type, bookingId, flightId, seats);
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                if (sync && status == STATUS_COMMITTED) {
+                    awaitDurable(sequence);
+                }
+            }
+        });
+    }
+    
+    public long append(Type type, Long bookingId, Long flightId, int seats) {
+        long sequence;
+        appendLock.lock();
+        try {
+            if (position + JournalEvent.SIZE > segmentBytes) {
+                roll();
+            }
+            sequence = nextSequence++;
+            new JournalEvent(type, sequence, System.currentTimeMillis(), orZero(bookingId), orZero(flightId), seats)
+                    .writeTo(segment, position);
+            position += JournalEvent.SIZE;
+            lastAppended = sequence;
+        } finally {
+            appendLock.unlock();
+        }
+        return sequence;
+    }
+    
+    public void awaitDurable(long sequence) {
+        if (lastDurable >= sequence) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            appended.signal();
+            while (lastDurable < sequence && running) {
+                forced.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+    
+    // State as of the journal's end when the application started
+    public JournalState getRecoveredState() {
+        return recovered;
+    }
+    
+    // Folds every event up to and including upToMillis (epoch milliseconds)
+    public JournalState replay(long upToMillis) {
+        JournalState state = new JournalState();
+        replay(upToMillis, state::apply);
+        return state;
+    }
+    
+    public void replay(long upToMillis, Consumer<JournalEvent> consumer) {
+        if (!enabled) {
+            throw new RuntimeException("Booking journal is disabled");
+        }
+        try {
+            for (Path path : segments()) {
+                scan(map(path, FileChannel.MapMode.READ_ONLY), upToMillis, consumer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void appendAndWait(Type type, Long bookingId, Long flightId, int seats) {
+        long sequence = append(type, bookingId, flightId, seats);
+        if (sync) {
+            awaitDurable(sequence);
+        }
+    }
+    
+    private void flushLoop() {
+        while (running) {
+            syncLock.lock();
+            try {
+                if (lastAppended == lastDurable) {
+                    appended.await(maxCommitDelayMs, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                syncLock.unlock();
+            }
+            force();
+        }
+    }
+    
+    // One force covers every append made before it started
+    private void force() {
+        long target = lastAppended;
+        if (target == lastDurable) {
+            return;
+        }
+        List<MappedByteBuffer> buffers;
+        appendLock.lock();
+        try {
+            buffers = new ArrayList<>(unforcedSegments);
+            unforcedSegments.clear();
+            buffers.add(segment);
+        } finally {
+            appendLock.unlock();
+        }
+        buffers.forEach(MappedByteBuffer::force);
+        syncLock.lock();
+        try {
+            lastDurable = target;
+            forced.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+    
+    // Called under appendLock; the full segment is forced by the next group commit
+    private void roll() {
+        try {
+            unforcedSegments.add(segment);
+            segment = map(segmentPath(nextSequence), FileChannel.MapMode.READ_WRITE);
+            position = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static int scan(MappedByteBuffer mapped, long upToMillis, Consumer<JournalEvent> consumer) {
+        int offset = 0;
+        int limit = mapped.capacity() - JournalEvent.SIZE;
+        while (offset <= limit) {
+            JournalEvent event = JournalEvent.readFrom(mapped, offset);
+            if (event == null) {
+                break;
+            }
+            if (event.timestamp() <= upToMillis) {
+                consumer.accept(event);
+            }
+            offset += JournalEvent.SIZE;
+        }
+        return offset;
+    }
+    
+    private MappedByteBuffer map(Path path, FileChannel.MapMode mode) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[] {StandardOpenOption.READ}
+                : new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE};
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            long size = mode == FileChannel.MapMode.READ_ONLY ? channel.size() : Math.max(channel.size(), segmentBytes);
+            return channel.map(mode, 0, size);
+        }
+    }
+    
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+    
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+    
+    private static long orZero(Long id) {
+        return id == null ? 0 : id;
+    }
+}
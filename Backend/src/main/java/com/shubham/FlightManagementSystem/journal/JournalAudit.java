@@ -0,0 +1,68 @@
+package com.shubham.FlightManagementSystem.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Checks the seats the journal recovered at startup against the bookings table. The table is the
+// source of truth; the journal can fall behind it after a crash (see BookingJournal), so drift is
+// reported for investigation and never corrected in either direction.
+@Component
+public class JournalAudit {
+    
+    private static final Logger log = LoggerFactory.getLogger(JournalAudit.class);
+    
+    // Same statuses SeatInventory counts as holding seats
+    private static final String RESERVED_SQL =
+            "SELECT flight_id, SUM(number_of_seats) AS seats FROM bookings " +
+            "WHERE status IN ('CONFIRMED', 'PENDING', 'COMPLETED') GROUP BY flight_id";
+    
+    @Autowired
+    private BookingJournal journal;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void audit() {
+        if (!journal.isEnabled()) {
+            return;
+        }
+        Map<Long, Integer> drift = drift();
+        if (drift.isEmpty()) {
+            log.info("Booking journal agrees with the bookings table");
+        } else {
+            log.warn("Booking journal disagrees with the bookings table on {} flights (table minus journal): {}",
+                    drift.size(), drift);
+        }
+    }
+    
+    // Flight id to reserved seats in the table minus reserved seats in the recovered journal, for every flight that differs
+    public Map<Long, Integer> drift() {
+        Map<Long, Integer> journalSeats = new HashMap<>(journal.getRecoveredState().getReservedSeats());
+        Map<Long, Integer> drift = new TreeMap<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(RESERVED_SQL)) {
+            Long flightId = ((Number) row.get("flight_id")).longValue();
+            int tableSeats = ((Number) row.get("seats")).intValue();
+            int difference = tableSeats - journalSeats.getOrDefault(flightId, 0);
+            journalSeats.remove(flightId);
+            if (difference != 0) {
+                drift.put(flightId, difference);
+            }
+        }
+        journalSeats.forEach((flightId, seats) -> {
+            if (seats != 0) {
+                drift.put(flightId, -seats);
+            }
+        });
+        return drift;
+    }
+}
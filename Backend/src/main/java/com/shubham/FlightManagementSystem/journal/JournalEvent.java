@@ -0,0 +1,45 @@
+package com.shubham.FlightManagementSystem.journal;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+// One fixed-size journal record:
+// [crc32c int][type byte][3 pad][sequence long][timestamp long][bookingId long][flightId long][seats int][4 pad]
+// The checksum covers everything after itself; a zero or mismatching checksum marks the end of the log.
+public record JournalEvent(Type type, long sequence, long timestamp, long bookingId, long flightId, int seats) {
+    
+    static final int SIZE = 48;
+    
+    void writeTo(ByteBuffer buffer, int offset) {
+        buffer.put(offset + 4, (byte) (type.ordinal() + 1));
+        buffer.putLong(offset + 8, sequence);
+        buffer.putLong(offset + 16, timestamp);
+        buffer.putLong(offset + 24, bookingId);
+        buffer.putLong(offset + 32, flightId);
+        buffer.putInt(offset + 40, seats);
+        buffer.putInt(offset, checksum(buffer, offset));
+    }
+    
+    // Null when the slot holds no complete record
+    static JournalEvent readFrom(ByteBuffer buffer, int offset) {
+        int crc = buffer.getInt(offset);
+        int type = buffer.get(offset + 4);
+        if (crc == 0 || type <= 0 || type > Type.VALUES.length || crc != checksum(buffer, offset)) {
+            return null;
+        }
+        return new JournalEvent(Type.VALUES[type - 1], buffer.getLong(offset + 8), buffer.getLong(offset + 16),
+                buffer.getLong(offset + 24), buffer.getLong(offset + 32), buffer.getInt(offset + 40));
+    }
+    
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + 4, SIZE - 4));
+        return (int) crc.getValue();
+    }
+    
+    public enum Type {
+        BOOKING_CREATED, SEATS_RESERVED, BOOKING_CANCELLED, SEATS_RELEASED, BOOKING_DELETED, BOOKING_HELD, BOOKING_CONFIRMED;
+        
+        private static final Type[] VALUES = values();
+    }
+}
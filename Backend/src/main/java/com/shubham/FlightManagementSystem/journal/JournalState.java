@@ -0,0 +1,63 @@
+package com.shubham.FlightManagementSystem.journal;
+
+import com.shubham.FlightManagementSystem.entity.Booking.BookingStatus;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Seat inventory and booking status folded from journal events
+public class JournalState {
+    
+    private final Map<Long, Integer> reservedSeats = new HashMap<>();
+    
+    private final Map<Long, BookingStatus> bookingStatuses = new HashMap<>();
+    
+    private long events;
+    
+    private long lastSequence;
+    
+    private long lastTimestamp;
+    
+    void apply(JournalEvent event) {
+        switch (event.type()) {
+            case BOOKING_CREATED -> bookingStatuses.put(event.bookingId(), BookingStatus.CONFIRMED);
+            case SEATS_RESERVED -> reservedSeats.merge(event.flightId(), event.seats(), Integer::sum);
+            case BOOKING_CANCELLED -> bookingStatuses.put(event.bookingId(), BookingStatus.CANCELLED);
+            case SEATS_RELEASED -> reservedSeats.merge(event.flightId(), -event.seats(), Integer::sum);
+            case BOOKING_DELETED -> bookingStatuses.remove(event.bookingId());
+            case BOOKING_HELD -> bookingStatuses.put(event.bookingId(), BookingStatus.PENDING);
+            case BOOKING_CONFIRMED -> bookingStatuses.put(event.bookingId(), BookingStatus.CONFIRMED);
+        }
+        events++;
+        lastSequence = event.sequence();
+        lastTimestamp = event.timestamp();
+    }
+    
+    public int reservedSeats(Long flightId) {
+        return reservedSeats.getOrDefault(flightId, 0);
+    }
+    
+    public BookingStatus bookingStatus(Long bookingId) {
+        return bookingStatuses.get(bookingId);
+    }
+    
+    public Map<Long, Integer> getReservedSeats() {
+        return reservedSeats;
+    }
+    
+    public Map<Long, BookingStatus> getBookingStatuses() {
+        return bookingStatuses;
+    }
+    
+    public long getEvents() {
+        return events;
+    }
+    
+    public long getLastSequence() {
+        return lastSequence;
+    }
+    
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+}
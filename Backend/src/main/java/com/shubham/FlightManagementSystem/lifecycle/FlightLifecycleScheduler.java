@@ -0,0 +1,244 @@
+package com.shubham.FlightManagementSystem.lifecycle;
+
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.entity.Flight.FlightStatus;
+import com.shubham.FlightManagementSystem.event.FlightChangedEvent;
+import com.shubham.FlightManagementSystem.event.FlightsImportedEvent;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import com.shubham.FlightManagementSystem.service.FlightService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Moves flights through SCHEDULED -> BOARDING -> DEPARTED -> ARRIVED on their own times.
+// Each flight has at most one planned transition, held in a priority queue by due time, so
+// planning costs O(log n) and a tick only looks at what is due. Due transitions are applied
+// with one UPDATE per target status, and the resulting FlightChangedEvents re-plan the next step.
+// A DELAYED flight is held until a save moves its departure or arrival time and then follows the
+// new times; CANCELLED and ARRIVED flights are left alone. Whether a DELAYED flight was already
+// rescheduled is not persisted, so after a restart every DELAYED flight is held again.
+@Component
+public class FlightLifecycleScheduler {
+    
+    private static final Logger log = LoggerFactory.getLogger(FlightLifecycleScheduler.class);
+    
+    // Lifecycle order; a flight can skip ahead when several steps are already due
+    private static final List<FlightStatus> STAGES =
+            List.of(FlightStatus.SCHEDULED, FlightStatus.BOARDING, FlightStatus.DEPARTED, FlightStatus.ARRIVED);
+    
+    @Autowired
+    private FlightRepository flightRepository;
+    
+    @Autowired
+    private FlightService flightService;
+    
+    @Value("${flight.lifecycle.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${flight.lifecycle.boarding-lead:PT30M}")
+    private Duration boardingLead;
+    
+    @Value("${flight.lifecycle.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${flight.lifecycle.retry-delay-ms:5000}")
+    private long retryDelayMs;
+    
+    private final PriorityQueue<Transition> queue =
+            new PriorityQueue<>(Comparator.comparing(Transition::dueAt));
+    
+    // The live transition per flight; queue entries no longer in here are skipped when polled
+    private final Map<Long, Transition> planned = new HashMap<>();
+    
+    // DELAYED flights with the times they had when they were first seen delayed
+    private final Map<Long, FlightTimes> delayedAt = new HashMap<>();
+    
+    private volatile boolean ready;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        List<FlightTimes> flights = flightRepository.findLifecycleTimes(
+                EnumSet.of(FlightStatus.SCHEDULED, FlightStatus.DELAYED, FlightStatus.BOARDING, FlightStatus.DEPARTED));
+        synchronized (this) {
+            flights.forEach(this::plan);
+        }
+        ready = true;
+        log.info("Flight lifecycle scheduler planned {} transitions", flights.size());
+    }
+    
+    @TransactionalEventListener
+    public synchronized void onFlightChanged(FlightChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        switch (event.type()) {
+            case SAVED -> plan(timesOf(event.snapshot()));
+            case DELETED -> {
+                planned.remove(event.flightId());
+                delayedAt.remove(event.flightId());
+            }
+            case SEATS -> {
+                // Seat counts do not move the lifecycle
+            }
+        }
+    }
+    
+    @TransactionalEventListener
+    public synchronized void onFlightsImported(FlightsImportedEvent event) {
+        if (enabled) {
+            event.snapshots().forEach(flight -> plan(timesOf(flight)));
+        }
+    }
+    
+    public synchronized int plannedTransitions() {
+        return planned.size();
+    }
+    
+    @Scheduled(fixedDelayString = "${flight.lifecycle.tick-ms:1000}")
+    public void tick() {
+        applyDue();
+    }
+    
+    // Applies every due transition in batches of batch-size per target status; a failed batch is
+    // planned again after retry-delay-ms
+    public int applyDue() {
+        if (!ready) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Step, List<Transition>> due = new LinkedHashMap<>();
+        synchronized (this) {
+            while (!queue.isEmpty() && !queue.peek().dueAt().isAfter(now)) {
+                Transition transition = queue.poll();
+                if (planned.remove(transition.flightId(), transition)) {
+                    due.computeIfAbsent(new Step(transition.to(), transition.fromDelayed()), step -> new ArrayList<>())
+                            .add(transition);
+                }
+            }
+        }
+        int applied = 0;
+        for (Map.Entry<Step, List<Transition>> group : due.entrySet()) {
+            FlightStatus to = group.getKey().to();
+            boolean fromDelayed = group.getKey().fromDelayed();
+            List<Transition> transitions = group.getValue();
+            // BOARDING is due boardingLead before departure; the other steps at their own time
+            LocalDateTime cutoff = to == FlightStatus.BOARDING ? now.plus(boardingLead) : now;
+            for (int from = 0; from < transitions.size(); from += batchSize) {
+                List<Transition> batch = transitions.subList(from, Math.min(from + batchSize, transitions.size()));
+                try {
+                    applied += flightService.advanceStatus(batch.stream().map(Transition::flightId).toList(),
+                            sourcesOf(to, fromDelayed), to, cutoff);
+                } catch (RuntimeException e) {
+                    log.warn("Moving {} flights to {} failed, retrying in {} ms", batch.size(), to, retryDelayMs, e);
+                    LocalDateTime retryAt = LocalDateTime.now().plus(Duration.ofMillis(retryDelayMs));
+                    synchronized (this) {
+                        batch.forEach(transition ->
+                                planIfAbsent(new Transition(transition.flightId(), to, retryAt, fromDelayed)));
+                    }
+                }
+            }
+        }
+        if (applied > 0) {
+            log.debug("Applied {} flight status transitions", applied);
+        }
+        return applied;
+    }
+    
+    private void plan(FlightTimes flight) {
+        boolean delayed = flight.status() == FlightStatus.DELAYED;
+        if (delayed) {
+            FlightTimes first = delayedAt.putIfAbsent(flight.flightId(), flight);
+            if (first == null || sameTimes(first, flight)) {
+                planned.remove(flight.flightId());
+                return;
+            }
+        } else {
+            delayedAt.remove(flight.flightId());
+        }
+        int current = STAGES.indexOf(delayed ? FlightStatus.SCHEDULED : flight.status());
+        if (current < 0 || current == STAGES.size() - 1 || flight.departureTime() == null || flight.arrivalTime() == null) {
+            planned.remove(flight.flightId());
+            return;
+        }
+        // The furthest step already due, otherwise the next one
+        LocalDateTime now = LocalDateTime.now();
+        int next = current + 1;
+        while (next + 1 < STAGES.size() && !dueAt(flight, STAGES.get(next + 1)).isAfter(now)) {
+            next++;
+        }
+        FlightStatus to = STAGES.get(next);
+        Transition transition = new Transition(flight.flightId(), to, dueAt(flight, to), delayed);
+        if (!transition.equals(planned.put(flight.flightId(), transition))) {
+            enqueue(transition);
+        }
+    }
+    
+    // A retry must not replace a transition re-planned by an event in the meantime
+    private void planIfAbsent(Transition transition) {
+        if (planned.putIfAbsent(transition.flightId(), transition) == null) {
+            enqueue(transition);
+        }
+    }
+    
+    // Superseded entries stay queued until polled; when they outnumber the live ones the queue
+    // is rebuilt from planned, which keeps it within a constant factor of the number of flights
+    private void enqueue(Transition transition) {
+        queue.add(transition);
+        if (queue.size() > 2 * planned.size() + 1024) {
+            queue.clear();
+            queue.addAll(planned.values());
+        }
+    }
+    
+    private LocalDateTime dueAt(FlightTimes flight, FlightStatus status) {
+        return switch (status) {
+            case BOARDING -> flight.departureTime().minus(boardingLead);
+            case DEPARTED -> flight.departureTime();
+            default -> flight.arrivalTime();
+        };
+    }
+    
+    // Every status a flight may skip from to reach to. DELAYED is only a source for flights that were
+    // rescheduled, so a flight delayed after its transition was planned is not moved by the UPDATE.
+    private static Set<FlightStatus> sourcesOf(FlightStatus to, boolean fromDelayed) {
+        Set<FlightStatus> sources = EnumSet.copyOf(STAGES.subList(0, STAGES.indexOf(to)));
+        if (fromDelayed) {
+            sources.add(FlightStatus.DELAYED);
+        }
+        return sources;
+    }
+    
+    private static boolean sameTimes(FlightTimes a, FlightTimes b) {
+        return Objects.equals(a.departureTime(), b.departureTime()) && Objects.equals(a.arrivalTime(), b.arrivalTime());
+    }
+    
+    private static FlightTimes timesOf(Flight flight) {
+        return new FlightTimes(flight.getId(), flight.getStatus(), flight.getDepartureTime(), flight.getArrivalTime());
+    }
+    
+    private record Transition(Long flightId, FlightStatus to, LocalDateTime dueAt, boolean fromDelayed) {}
+    
+    private record Step(FlightStatus to, boolean fromDelayed) {}
+}
@@ -0,0 +1,7 @@
+package com.shubham.FlightManagementSystem.lifecycle;
+
+import com.shubham.FlightManagementSystem.entity.Flight.FlightStatus;
+
+import java.time.LocalDateTime;
+
+public record FlightTimes(Long flightId, FlightStatus status, LocalDateTime departureTime, LocalDateTime arrivalTime) {}
@@ -0,0 +1,129 @@
+package com.shubham.FlightManagementSystem.metrics;
+
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Service-level meters. Everything is registered once here, so a hot path only reads a field and
+// records into it: no registry lookup, tag building or aspect per call. Timers publish histogram
+// buckets and Prometheus computes p50/p95/p99 from them.
+@Component
+public class FlightMetrics {
+    
+    @Autowired
+    private MeterRegistry registry;
+    
+    @Autowired
+    private FlightRepository flightRepository;
+    
+    // How many of the most-reserved flights get a seats-remaining gauge
+    @Value("${flight.metrics.hot-flights:10}")
+    private int hotFlights;
+    
+    private Timer searchFlights;
+    private Timer reserveSeats;
+    private Timer createBooking;
+    private Timer cancelBooking;
+    
+    private Counter failedReservations;
+    private Counter oversellAttempts;
+    
+    private MultiGauge hotFlightSeats;
+    
+    // Seats requested per flight since the last gauge refresh
+    private final Map<Long, LongAdder> demand = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    void register() {
+        searchFlights = timer("flight.search", "FlightService.searchFlights");
+        reserveSeats = timer("flight.seats.reserve", "FlightService.reserveSeats");
+        createBooking = timer("booking.create", "BookingService.createBooking");
+        cancelBooking = timer("booking.cancel", "BookingService.cancelBooking");
+        failedReservations = Counter.builder("flight.seats.reserve.failed")
+                .description("Seat reservations refused because the flight is missing or full")
+                .register(registry);
+        oversellAttempts = Counter.builder("booking.oversell.attempts")
+                .description("Bookings rejected because they asked for more seats than were left")
+                .register(registry);
+        hotFlightSeats = MultiGauge.builder("flight.hot.seats.remaining")
+                .description("Seats left on the flights with the most seat requests in the last refresh interval")
+                .register(registry);
+    }
+    
+    public Timer searchFlights() {
+        return searchFlights;
+    }
+    
+    public Timer reserveSeats() {
+        return reserveSeats;
+    }
+    
+    public Timer createBooking() {
+        return createBooking;
+    }
+    
+    public Timer cancelBooking() {
+        return cancelBooking;
+    }
+    
+    public void seatsRequested(Long flightId, int seats, boolean reserved) {
+        demand.computeIfAbsent(flightId, id -> new LongAdder()).add(seats);
+        if (!reserved) {
+            failedReservations.increment();
+        }
+    }
+    
+    public void oversellAttempted() {
+        oversellAttempts.increment();
+    }
+    
+    // One small keyed query per interval, off the request path
+    @Scheduled(fixedRateString = "${flight.metrics.hot-flights-refresh-ms:15000}")
+    public void refreshHotFlights() {
+        List<Long> hottest = demand.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sumThenReset()))
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .limit(hotFlights)
+                .map(Map.Entry::getKey)
+                .toList();
+        // Idle flights are dropped so the map only holds recently booked ones; a request racing
+        // with the removal is counted from the next interval
+        demand.values().removeIf(adder -> adder.sum() == 0);
+        if (hottest.isEmpty()) {
+            hotFlightSeats.register(List.of(), true);
+            return;
+        }
+        List<Flight> flights = flightRepository.findAllById(hottest);
+        hotFlightSeats.register(flights.stream()
+                .sorted(Comparator.comparingInt(flight -> hottest.indexOf(flight.getId())))
+                .<MultiGauge.Row<?>>map(flight -> MultiGauge.Row.of(Tags.of("flight", flight.getFlightNumber()), flight.getAvailableSeats()))
+                .toList(), true);
+    }
+    
+    private Timer timer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.of(50, ChronoUnit.MICROS))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+    }
+}
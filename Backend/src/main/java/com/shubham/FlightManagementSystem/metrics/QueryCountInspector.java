@@ -0,0 +1,29 @@
+package com.shubham.FlightManagementSystem.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts the SQL statements Hibernate prepares on the current thread while a request is being
+// counted (see RequestQueryMetricsFilter); the statement itself is passed through unchanged
+public class QueryCountInspector implements StatementInspector {
+    
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+    
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+    
+    static void start() {
+        COUNT.set(new int[1]);
+    }
+    
+    static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
@@ -0,0 +1,402 @@
+package com.shubham.FlightManagementSystem.readmodel;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.entity.Flight.FlightStatus;
+import com.shubham.FlightManagementSystem.event.AirportChangedEvent;
+import com.shubham.FlightManagementSystem.event.FlightChangedEvent;
+import com.shubham.FlightManagementSystem.event.FlightsImportedEvent;
+import com.shubham.FlightManagementSystem.event.SeatCount;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import com.shubham.FlightManagementSystem.web.EntityTags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+// Query side of the flights aggregate: one flat, detached Flight snapshot per flight with its
+// availability, route, price, status and airports already in place, so reads never join or lock
+// the rows booking writes are updating. Committed changes are queued on the committing thread
+// and applied in order by one projector thread. Every change gets a position; writers hand the
+// position after their commit back as X-Consistency-Token, and a read carrying one waits for the
+// model to reach it. Reads fall back to the database when the model is further behind than
+// flight.read-model.max-staleness-ms or a token is not reached within flight.read-model.token-wait-ms.
+@Component
+public class FlightReadModel {
+    
+    private static final Logger log = LoggerFactory.getLogger(FlightReadModel.class);
+    
+    public static final String TOKEN_HEADER = "X-Consistency-Token";
+    
+    private static final Comparator<Flight> BY_DEPARTURE_TIME =
+            Comparator.comparing(Flight::getDepartureTime).thenComparing(Flight::getId);
+    
+    @Autowired
+    private FlightRepository flightRepository;
+    
+    @Value("${flight.read-model.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${flight.read-model.max-staleness-ms:1000}")
+    private long maxStalenessMs;
+    
+    @Value("${flight.read-model.token-wait-ms:200}")
+    private long tokenWaitMs;
+    
+    private final long epoch = System.currentTimeMillis();
+    
+    private final BlockingQueue<Change> incoming = new LinkedBlockingQueue<>();
+    
+    // Guarded by incoming, so positions enter the queue in order
+    private long published;
+    
+    private volatile long applied;
+    
+    // Position published when the last load started; everything up to it had committed before the
+    // load read the table. Only touched by the projector thread.
+    private long loadedThrough;
+    
+    private final Object appliedMonitor = new Object();
+    
+    private final Map<Long, Flight> flights = new ConcurrentHashMap<>();
+    
+    private final Map<String, Long> idsByNumber = new ConcurrentHashMap<>();
+    
+    private final Map<String, Set<Long>> idsByRoute = new ConcurrentHashMap<>();
+    
+    private volatile boolean ready;
+    
+    private Thread projector;
+    
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        projector = new Thread(this::project, "flight-read-model-projector");
+        projector.setDaemon(true);
+        projector.start();
+    }
+    
+    @PreDestroy
+    void stop() {
+        if (projector != null) {
+            projector.interrupt();
+        }
+    }
+    
+    // Loaded by the projector, so changes committed meanwhile are applied after the load
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (enabled) {
+            enqueue(Rebuild.INSTANCE);
+        }
+    }
+    
+    // Whether a read may be answered here: the model is loaded, has applied the caller's token
+    // (waiting briefly for it) and is not further behind than the staleness bound
+    public boolean canServe(Long token) {
+        if (!enabled || token != null && applied < token && !awaitApplied(token)) {
+            return false;
+        }
+        if (!ready) {
+            return false;
+        }
+        Change oldest = incoming.peek();
+        return oldest == null || System.nanoTime() - oldest.queuedAt() <= TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+    }
+    
+    // Position of the last change queued; after a write commits this covers the write
+    public String currentToken() {
+        synchronized (incoming) {
+            return Long.toString(published);
+        }
+    }
+    
+    // Changes with every applied change rather than every commit, so a client is never told a
+    // body is current before the model has caught up with it
+    public String etag(MediaType representation) {
+        return EntityTags.weak("flights-rm-" + Long.toString(epoch, 36) + "-" + applied, representation);
+    }
+    
+    public List<Flight> getAllFlights() {
+        List<Flight> result = new ArrayList<>(flights.values());
+        result.sort(Comparator.comparing(Flight::getId));
+        return result;
+    }
+    
+    public Optional<Flight> getFlightById(Long id) {
+        return Optional.ofNullable(flights.get(id));
+    }
+    
+    public Optional<Flight> getFlightByNumber(String flightNumber) {
+        Long id = idsByNumber.get(flightNumber);
+        return Optional.ofNullable(id == null ? null : flights.get(id));
+    }
+    
+    public List<Flight> getFlightsByDepartureAirport(String airportCode) {
+        return select(flight -> flight.getDepartureAirport().getCode().equals(airportCode), null);
+    }
+    
+    public List<Flight> getFlightsByArrivalAirport(String airportCode) {
+        return select(flight -> flight.getArrivalAirport().getCode().equals(airportCode), null);
+    }
+    
+    // Same contract as FlightRepository.findAvailableFlights
+    public List<Flight> getAvailableFlights() {
+        return select(flight -> flight.getAvailableSeats() > 0 && flight.getStatus() == FlightStatus.SCHEDULED,
+                BY_DEPARTURE_TIME);
+    }
+    
+    public List<Flight> getFlightsByStatus(FlightStatus status) {
+        return select(flight -> flight.getStatus() == status, null);
+    }
+    
+    // Same contract as FlightRepository.searchFlights
+    public List<Flight> searchFlights(String departureCode, String arrivalCode, LocalDateTime departureDate, Integer seats) {
+        List<Flight> result = new ArrayList<>();
+        for (Long id : idsByRoute.getOrDefault(routeOf(departureCode, arrivalCode), Set.of())) {
+            Flight flight = flights.get(id);
+            if (flight != null && !flight.getDepartureTime().isBefore(departureDate) && flight.getAvailableSeats() >= seats) {
+                result.add(flight);
+            }
+        }
+        result.sort(BY_DEPARTURE_TIME);
+        return result;
+    }
+    
+    @TransactionalEventListener
+    public void onFlightChanged(FlightChangedEvent event) {
+        if (enabled) {
+            enqueue(event);
+        }
+    }
+    
+    @TransactionalEventListener
+    public void onFlightsImported(FlightsImportedEvent event) {
+        if (enabled) {
+            enqueue(event);
+        }
+    }
+    
+    @TransactionalEventListener
+    public void onAirportChanged(AirportChangedEvent event) {
+        if (enabled) {
+            enqueue(event);
+        }
+    }
+    
+    private void enqueue(Object event) {
+        synchronized (incoming) {
+            incoming.offer(new Change(++published, System.nanoTime(), event));
+        }
+    }
+    
+    private boolean awaitApplied(long token) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tokenWaitMs);
+        synchronized (appliedMonitor) {
+            while (applied < token) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    appliedMonitor.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    private void project() {
+        List<Change> batch = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(incoming.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            incoming.drainTo(batch);
+            for (Change change : batch) {
+                if (change.position() <= loadedThrough) {
+                    // Already in the loaded rows
+                    continue;
+                }
+                try {
+                    apply(change.event());
+                } catch (RuntimeException e) {
+                    // Never serve a model that missed a change: reads go to the database until a reload succeeds
+                    log.error("Flight read model failed to apply {}", change.event(), e);
+                    ready = false;
+                    if (!(change.event() instanceof Rebuild)) {
+                        enqueue(Rebuild.INSTANCE);
+                    }
+                }
+            }
+            synchronized (appliedMonitor) {
+                applied = batch.get(batch.size() - 1).position();
+                appliedMonitor.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+    
+    private void apply(Object event) {
+        switch (event) {
+            case FlightChangedEvent changed -> {
+                switch (changed.type()) {
+                    case SAVED -> put(keepingNewerSeats(changed.snapshot()));
+                    case DELETED -> remove(changed.flightId());
+                    case SEATS -> flights.computeIfPresent(changed.flightId(), (id, current) -> {
+                        SeatCount seats = changed.seats();
+                        if (seats != null && !seats.supersedes(current)) {
+                            return current;
+                        }
+                        Flight updated = FlightChangedEvent.snapshotOf(current);
+                        if (seats == null) {
+                            updated.setAvailableSeats(current.getAvailableSeats() + changed.seatDelta());
+                        } else {
+                            updated.setAvailableSeats(seats.availableSeats());
+                            updated.setSeatVersion(seats.version());
+                        }
+                        return updated;
+                    });
+                }
+            }
+            case FlightsImportedEvent imported -> imported.snapshots().forEach(this::put);
+            case AirportChangedEvent airport -> {
+                if (airport.type() == AirportChangedEvent.Type.SAVED) {
+                    replaceAirport(airport.snapshot());
+                }
+            }
+            case Rebuild rebuild -> load();
+            default -> throw new IllegalArgumentException("Unknown change " + event);
+        }
+    }
+    
+    // A change committed before the query but enqueued after the mark is still applied on top of rows
+    // that include it. Seat counts are versioned, so that only rewrites the count the rows already hold;
+    // with the seat inventory only deltas are known, and those the table lags anyway until a flush.
+    private void load() {
+        synchronized (incoming) {
+            loadedThrough = published;
+        }
+        List<Flight> persisted = flightRepository.findAllWithAirports();
+        flights.clear();
+        idsByNumber.clear();
+        idsByRoute.clear();
+        for (Flight flight : persisted) {
+            put(FlightChangedEvent.snapshotOf(flight));
+        }
+        ready = true;
+        log.info("Flight read model loaded with {} flights", flights.size());
+    }
+    
+    // A snapshot read before a later seat change committed must not take those seats back
+    private Flight keepingNewerSeats(Flight snapshot) {
+        Flight current = flights.get(snapshot.getId());
+        if (current == null || current.getSeatVersion() <= snapshot.getSeatVersion()) {
+            return snapshot;
+        }
+        Flight updated = FlightChangedEvent.snapshotOf(snapshot);
+        updated.setAvailableSeats(current.getAvailableSeats());
+        updated.setSeatVersion(current.getSeatVersion());
+        return updated;
+    }
+    
+    private void put(Flight flight) {
+        Flight previous = flights.put(flight.getId(), flight);
+        if (previous != null && !previous.getFlightNumber().equals(flight.getFlightNumber())) {
+            idsByNumber.remove(previous.getFlightNumber(), previous.getId());
+        }
+        if (previous != null && !routeOf(previous).equals(routeOf(flight))) {
+            unlinkRoute(previous);
+        }
+        idsByNumber.put(flight.getFlightNumber(), flight.getId());
+        idsByRoute.computeIfAbsent(routeOf(flight), route -> ConcurrentHashMap.newKeySet()).add(flight.getId());
+    }
+    
+    private void remove(Long flightId) {
+        Flight previous = flights.remove(flightId);
+        if (previous != null) {
+            idsByNumber.remove(previous.getFlightNumber(), previous.getId());
+            unlinkRoute(previous);
+        }
+    }
+    
+    private void unlinkRoute(Flight previous) {
+        Set<Long> route = idsByRoute.get(routeOf(previous));
+        if (route != null) {
+            route.remove(previous.getId());
+        }
+    }
+    
+    // Flights embed their airports, so a renamed airport is copied into every flight using it
+    private void replaceAirport(Airport airport) {
+        for (Flight flight : flights.values()) {
+            boolean departs = Objects.equals(flight.getDepartureAirport().getId(), airport.getId());
+            boolean arrives = Objects.equals(flight.getArrivalAirport().getId(), airport.getId());
+            if (departs || arrives) {
+                Flight updated = FlightChangedEvent.snapshotOf(flight);
+                if (departs) {
+                    updated.setDepartureAirport(airport);
+                }
+                if (arrives) {
+                    updated.setArrivalAirport(airport);
+                }
+                put(updated);
+            }
+        }
+    }
+    
+    private List<Flight> select(Predicate<Flight> filter, Comparator<Flight> order) {
+        List<Flight> result = new ArrayList<>();
+        for (Flight flight : flights.values()) {
+            if (filter.test(flight)) {
+                result.add(flight);
+            }
+        }
+        if (order != null) {
+            result.sort(order);
+        }
+        return result;
+    }
+    
+    private static String routeOf(Flight flight) {
+        return routeOf(flight.getDepartureAirport().getCode(), flight.getArrivalAirport().getCode());
+    }
+    
+    private static String routeOf(String departureCode, String arrivalCode) {
+        return departureCode + "-" + arrivalCode;
+    }
+    
+    private record Change(long position, long queuedAt, Object event) {}
+    
+    private enum Rebuild {
+        INSTANCE
+    }
+}
@@ -0,0 +1,7 @@
+package com.shubham.FlightManagementSystem.reference;
+
+// Source of booking references; replace the default by declaring a @Primary bean
+public interface BookingReferenceGenerator {
+    
+    String nextReference();
+}
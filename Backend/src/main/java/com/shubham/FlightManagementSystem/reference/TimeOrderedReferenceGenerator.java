@@ -0,0 +1,88 @@
+package com.shubham.FlightManagementSystem.reference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// References built from 41 bits of milliseconds since 2024-01-01, a 10-bit node id and a 12-bit
+// per-millisecond sequence, so they are unique across nodes as long as every node has its own
+// node id. Written as "BK", 13 Crockford base32 digits and a Crockford mod-37 check symbol.
+@Component
+public class TimeOrderedReferenceGenerator implements BookingReferenceGenerator {
+    
+    static final String PREFIX = "BK";
+    
+    private static final long EPOCH_MILLIS = 1704067200000L;
+    
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    
+    private static final int DIGITS = 13;
+    private static final char[] SYMBOLS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ*~$=U".toCharArray();
+    
+    private final long node;
+    
+    // Last issued (milliseconds << SEQUENCE_BITS | sequence). When a millisecond's sequence runs out
+    // the next millisecond is borrowed instead of waiting, and a clock that steps back is ignored.
+    private final AtomicLong state = new AtomicLong();
+    
+    public TimeOrderedReferenceGenerator(@Value("${flight.booking-reference.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Booking reference node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.node = nodeId;
+    }
+    
+    @Override
+    public String nextReference() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = state.get();
+            next = Math.max(now, previous + 1);
+        } while (!state.compareAndSet(previous, next));
+        long millis = next >>> SEQUENCE_BITS;
+        return encode((millis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | (next & SEQUENCE_MASK));
+    }
+    
+    // Checks the shape and check symbol, so mistyped references can be rejected without a query
+    public static boolean isValid(String reference) {
+        if (reference == null || reference.length() != PREFIX.length() + DIGITS + 1 || !reference.startsWith(PREFIX)) {
+            return false;
+        }
+        long value = 0;
+        for (int i = PREFIX.length(); i < PREFIX.length() + DIGITS; i++) {
+            int digit = indexOf(reference.charAt(i));
+            if (digit < 0 || digit >= 32) {
+                return false;
+            }
+            value = (value << 5) | digit;
+        }
+        return reference.charAt(reference.length() - 1) == SYMBOLS[(int) Long.remainderUnsigned(value, 37)];
+    }
+    
+    private static String encode(long value) {
+        char[] chars = new char[PREFIX.length() + DIGITS + 1];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        long remaining = value;
+        for (int i = PREFIX.length() + DIGITS - 1; i >= PREFIX.length(); i--) {
+            chars[i] = SYMBOLS[(int) (remaining & 31)];
+            remaining >>>= 5;
+        }
+        chars[chars.length - 1] = SYMBOLS[(int) Long.remainderUnsigned(value, 37)];
+        return new String(chars);
+    }
+    
+    private static int indexOf(char symbol) {
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            if (SYMBOLS[i] == symbol) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,13 +1,18 @@
 package com.shubham.FlightManagementSystem.repository;
 
 import com.shubham.FlightManagementSystem.entity.Airport;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AirportRepository extends JpaRepository<Airport, Long> {
@@ -22,4 +27,11 @@ public interface AirportRepository extends JpaRepository<Airport, Long> {
     List<Airport> searchAirports(@Param("keyword") String keyword);
     
     boolean existsByCode(String code);
+    
+    @Query("SELECT a FROM Airport a WHERE a.id > :afterId ORDER BY a.id")
+    List<Airport> findPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a FROM Airport a ORDER BY a.id")
+    Stream<Airport> streamAll();
 }
@@ -2,37 +2,134 @@ package com.shubham.FlightManagementSystem.repository;
 
 import com.shubham.FlightManagementSystem.entity.Booking;
 import com.shubham.FlightManagementSystem.entity.Booking.BookingStatus;
+import com.shubham.FlightManagementSystem.hold.ActiveHold;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     
+    // Bookings are always read together with their flight and its airports
+    @EntityGraph(attributePaths = {"flight", "flight.departureAirport", "flight.arrivalAirport"})
+    @Override
+    List<Booking> findAll();
+    
+    @EntityGraph(attributePaths = {"flight", "flight.departureAirport", "flight.arrivalAirport"})
+    @Override
+    Optional<Booking> findById(Long id);
+    
+    @EntityGraph(attributePaths = {"flight", "flight.departureAirport", "flight.arrivalAirport"})
     Optional<Booking> findByBookingReference(String bookingReference);
     
+    @EntityGraph(attributePaths = {"flight", "flight.departureAirport", "flight.arrivalAirport"})
     List<Booking> findByPassengerName(String passengerName);
     
+    @EntityGraph(attributePaths = {"flight", "flight.departureAirport", "flight.arrivalAirport"})
     List<Booking> findByEmail(String email);
     
+    @EntityGraph(attributePaths = {"flight", "flight.departureAirport", "flight.arrivalAirport"})
     List<Booking> findByFlightId(Long flightId);
     
+    @EntityGraph(attributePaths = {"flight", "flight.departureAirport", "flight.arrivalAirport"})
     List<Booking> findByStatus(BookingStatus status);
     
+    @EntityGraph(attributePaths = {"flight", "flight.departureAirport", "flight.arrivalAirport"})
     List<Booking> findByBookingDateBetween(LocalDateTime startDate, LocalDateTime endDate);
     
-    @Query("SELECT b FROM Booking b WHERE b.passengerName LIKE %:keyword% " +
-           "OR b.email LIKE %:keyword% OR b.bookingReference LIKE %:keyword%")
-    List<Booking> searchBookings(@Param("keyword") String keyword);
+    // Booking search runs on the trigram indexes from schema-postgresql.sql and returns ranked ids;
+    // :term is lower-cased, :pattern is '%term%' with LIKE wildcards escaped. Only the first
+    // :candidates matches the index hands back are scored, so a short term that matches most of
+    // the table does not compute similarity for every row; an exact booking reference always ranks.
+    @Query(value = "SELECT c.id FROM (" +
+                   "(SELECT b.id, b.passenger_name, b.email, b.booking_reference FROM bookings b " +
+                   "WHERE f_unaccent(lower(b.passenger_name)) LIKE f_unaccent(:pattern) " +
+                   "OR lower(b.email) LIKE :pattern OR lower(b.booking_reference) LIKE :pattern " +
+                   "LIMIT :candidates) " +
+                   "UNION (SELECT b.id, b.passenger_name, b.email, b.booking_reference FROM bookings b " +
+                   "WHERE lower(b.booking_reference) = :term)) c " +
+                   "ORDER BY (lower(c.booking_reference) = :term) DESC, " +
+                   "GREATEST(similarity(f_unaccent(lower(c.passenger_name)), f_unaccent(:term)), " +
+                   "similarity(lower(c.email), :term), similarity(lower(c.booking_reference), :term)) DESC, " +
+                   "c.id DESC",
+           nativeQuery = true)
+    List<Long> searchBookingIds(@Param("term") String term, @Param("pattern") String pattern,
+                                @Param("candidates") int candidates, Pageable pageable);
+    
+    @Query(value = "SELECT c.id FROM (SELECT b.id, b.passenger_name FROM bookings b " +
+                   "WHERE f_unaccent(lower(b.passenger_name)) LIKE f_unaccent(:pattern) LIMIT :candidates) c " +
+                   "ORDER BY similarity(f_unaccent(lower(c.passenger_name)), f_unaccent(:term)) DESC, c.id DESC",
+           nativeQuery = true)
+    List<Long> searchBookingIdsByPassengerName(@Param("term") String term, @Param("pattern") String pattern,
+                                               @Param("candidates") int candidates, Pageable pageable);
+    
+    @Query(value = "SELECT c.id FROM (SELECT b.id, b.email FROM bookings b " +
+                   "WHERE lower(b.email) LIKE :pattern LIMIT :candidates) c " +
+                   "ORDER BY similarity(lower(c.email), :term) DESC, c.id DESC",
+           nativeQuery = true)
+    List<Long> searchBookingIdsByEmail(@Param("term") String term, @Param("pattern") String pattern,
+                                       @Param("candidates") int candidates, Pageable pageable);
+    
+    @Query(value = "SELECT c.id FROM (SELECT b.id, b.booking_reference FROM bookings b " +
+                   "WHERE lower(b.booking_reference) LIKE :pattern LIMIT :candidates) c " +
+                   "ORDER BY similarity(lower(c.booking_reference), :term) DESC, c.id DESC",
+           nativeQuery = true)
+    List<Long> searchBookingIdsByReference(@Param("term") String term, @Param("pattern") String pattern,
+                                           @Param("candidates") int candidates, Pageable pageable);
+    
+    @Query("SELECT b FROM Booking b JOIN FETCH b.flight f " +
+           "JOIN FETCH f.departureAirport JOIN FETCH f.arrivalAirport WHERE b.id IN :ids")
+    List<Booking> findAllWithFlightsByIdIn(@Param("ids") Collection<Long> ids);
     
+    @EntityGraph(attributePaths = {"flight", "flight.departureAirport", "flight.arrivalAirport"})
     @Query("SELECT b FROM Booking b WHERE b.flight.departureTime >= :date " +
            "ORDER BY b.flight.departureTime")
     List<Booking> findUpcomingBookings(@Param("date") LocalDateTime date);
     
     boolean existsByBookingReference(String bookingReference);
+    
+    @Query("SELECT b FROM Booking b JOIN FETCH b.flight f " +
+           "JOIN FETCH f.departureAirport JOIN FETCH f.arrivalAirport " +
+           "WHERE b.id > :afterId ORDER BY b.id")
+    List<Booking> findPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b FROM Booking b JOIN FETCH b.flight f " +
+           "JOIN FETCH f.departureAirport JOIN FETCH f.arrivalAirport ORDER BY b.id")
+    Stream<Booking> streamAllWithFlights();
+    
+    // Served by idx_bookings_pending_holds from schema-postgresql.sql
+    @Query("SELECT new com.shubham.FlightManagementSystem.hold.ActiveHold(b.id, b.holdExpiresAt) FROM Booking b " +
+           "WHERE b.status = com.shubham.FlightManagementSystem.entity.Booking.BookingStatus.PENDING " +
+           "AND b.holdExpiresAt IS NOT NULL")
+    List<ActiveHold> findActiveHolds();
+    
+    // Row locks make a concurrent confirmHold wait for the expiry and then find nothing to confirm
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids " +
+           "AND b.status = com.shubham.FlightManagementSystem.entity.Booking.BookingStatus.PENDING " +
+           "AND b.holdExpiresAt <= :now")
+    List<Booking> lockExpiredHolds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = com.shubham.FlightManagementSystem.entity.Booking.BookingStatus.CONFIRMED, " +
+           "b.holdExpiresAt = NULL WHERE b.id = :id " +
+           "AND b.status = com.shubham.FlightManagementSystem.entity.Booking.BookingStatus.PENDING " +
+           "AND b.holdExpiresAt > :now")
+    int confirmHold(@Param("id") Long id, @Param("now") LocalDateTime now);
 }
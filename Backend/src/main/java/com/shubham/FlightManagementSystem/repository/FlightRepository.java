@@ -2,30 +2,60 @@ package com.shubham.FlightManagementSystem.repository;
 
 import com.shubham.FlightManagementSystem.entity.Flight;
 import com.shubham.FlightManagementSystem.entity.Flight.FlightStatus;
+import com.shubham.FlightManagementSystem.event.SeatCount;
+import com.shubham.FlightManagementSystem.lifecycle.FlightTimes;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface FlightRepository extends JpaRepository<Flight, Long> {
     
+    // List reads fetch both airports in the same statement so serializing them adds no queries
+    @EntityGraph(attributePaths = {"departureAirport", "arrivalAirport"})
+    @Override
+    List<Flight> findAll();
+    
+    @EntityGraph(attributePaths = {"departureAirport", "arrivalAirport"})
+    @Override
+    Optional<Flight> findById(Long id);
+    
+    @EntityGraph(attributePaths = {"departureAirport", "arrivalAirport"})
+    @Override
+    List<Flight> findAllById(Iterable<Long> ids);
+    
+    @EntityGraph(attributePaths = {"departureAirport", "arrivalAirport"})
     Optional<Flight> findByFlightNumber(String flightNumber);
     
+    @EntityGraph(attributePaths = {"departureAirport", "arrivalAirport"})
     List<Flight> findByDepartureAirportCode(String departureAirportCode);
     
+    @EntityGraph(attributePaths = {"departureAirport", "arrivalAirport"})
     List<Flight> findByArrivalAirportCode(String arrivalAirportCode);
     
+    @EntityGraph(attributePaths = {"departureAirport", "arrivalAirport"})
     List<Flight> findByDepartureAirportCodeAndArrivalAirportCode(String departureAirportCode, String arrivalAirportCode);
     
+    @EntityGraph(attributePaths = {"departureAirport", "arrivalAirport"})
     List<Flight> findByDepartureTimeBetween(LocalDateTime startDate, LocalDateTime endDate);
     
+    @EntityGraph(attributePaths = {"departureAirport", "arrivalAirport"})
     List<Flight> findByStatus(FlightStatus status);
     
+    @EntityGraph(attributePaths = {"departureAirport", "arrivalAirport"})
     @Query("SELECT f FROM Flight f WHERE f.departureAirport.code = :departureCode " +
            "AND f.arrivalAirport.code = :arrivalCode " +
            "AND f.departureTime >= :departureDate " +
@@ -36,9 +66,84 @@ public interface FlightRepository extends JpaRepository<Flight, Long> {
                               @Param("departureDate") LocalDateTime departureDate,
                               @Param("seats") Integer seats);
     
+    @EntityGraph(attributePaths = {"departureAirport", "arrivalAirport"})
     @Query("SELECT f FROM Flight f WHERE f.availableSeats > 0 AND f.status = 'SCHEDULED' " +
            "ORDER BY f.departureTime")
     List<Flight> findAvailableFlights();
     
+    @Query("SELECT f.flightNumber FROM Flight f")
+    List<String> findAllFlightNumbers();
+    
+    @Query("SELECT f FROM Flight f JOIN FETCH f.departureAirport JOIN FETCH f.arrivalAirport")
+    List<Flight> findAllWithAirports();
+    
+    @Query("SELECT f FROM Flight f JOIN FETCH f.departureAirport JOIN FETCH f.arrivalAirport " +
+           "WHERE f.id > :afterId ORDER BY f.id")
+    List<Flight> findPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT f FROM Flight f JOIN FETCH f.departureAirport JOIN FETCH f.arrivalAirport " +
+           "ORDER BY f.departureTime, f.id")
+    List<Flight> findFirstPageByDepartureTime(Pageable pageable);
+    
+    @Query("SELECT f FROM Flight f JOIN FETCH f.departureAirport JOIN FETCH f.arrivalAirport " +
+           "WHERE f.departureTime > :afterTime OR (f.departureTime = :afterTime AND f.id > :afterId) " +
+           "ORDER BY f.departureTime, f.id")
+    List<Flight> findPageAfterDepartureTime(@Param("afterTime") LocalDateTime afterTime,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT f FROM Flight f JOIN FETCH f.departureAirport JOIN FETCH f.arrivalAirport ORDER BY f.id")
+    Stream<Flight> streamAllWithAirports();
+    
     boolean existsByFlightNumber(String flightNumber);
+    
+    // Conditional single-row updates: the row lock serializes concurrent bookings and the
+    // WHERE clause rejects any that would oversell. Both return the number of rows changed.
+    // The persistence context is not cleared; FlightService refreshes the one Flight it may hold.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Flight f SET f.availableSeats = f.availableSeats - :seats, f.seatVersion = f.seatVersion + 1 " +
+           "WHERE f.id = :id AND f.availableSeats >= :seats")
+    int reserveSeats(@Param("id") Long id, @Param("seats") Integer seats);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Flight f SET f.availableSeats = f.availableSeats + :seats, f.seatVersion = f.seatVersion + 1 " +
+           "WHERE f.id = :id AND f.availableSeats + :seats <= f.totalSeats")
+    int releaseSeats(@Param("id") Long id, @Param("seats") Integer seats);
+    
+    @Query("SELECT new com.shubham.FlightManagementSystem.event.SeatCount(f.availableSeats, f.seatVersion) " +
+           "FROM Flight f WHERE f.id = :id")
+    SeatCount findSeatCount(@Param("id") Long id);
+    
+    @Query("SELECT new com.shubham.FlightManagementSystem.lifecycle.FlightTimes(f.id, f.status, f.departureTime, f.arrivalTime) " +
+           "FROM Flight f WHERE f.status IN :statuses")
+    List<FlightTimes> findLifecycleTimes(@Param("statuses") Collection<FlightStatus> statuses);
+    
+    // Set-based status moves for the lifecycle scheduler: the status and time conditions skip
+    // flights changed since their transition was planned
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Flight f SET f.status = :to WHERE f.id IN :ids AND f.status IN :from AND f.departureTime <= :cutoff")
+    int advanceStatusByDeparture(@Param("ids") Collection<Long> ids, @Param("from") Collection<FlightStatus> from,
+                                 @Param("to") FlightStatus to, @Param("cutoff") LocalDateTime cutoff);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Flight f SET f.status = :to WHERE f.id IN :ids AND f.status IN :from AND f.arrivalTime <= :cutoff")
+    int advanceStatusByArrival(@Param("ids") Collection<Long> ids, @Param("from") Collection<FlightStatus> from,
+                               @Param("to") FlightStatus to, @Param("cutoff") LocalDateTime cutoff);
+    
+    // Bulk PATCH /api/flights: one statement for the whole id list, times shifted in the database
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Flight f SET f.status = :status WHERE f.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") FlightStatus status);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Flight f SET f.departureTime = f.departureTime + (:minutes) minute, " +
+           "f.arrivalTime = f.arrivalTime + (:minutes) minute WHERE f.id IN :ids")
+    int shiftTimes(@Param("ids") Collection<Long> ids, @Param("minutes") long minutes);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Flight f SET f.status = :status, f.departureTime = f.departureTime + (:minutes) minute, " +
+           "f.arrivalTime = f.arrivalTime + (:minutes) minute WHERE f.id IN :ids")
+    int shiftTimesAndUpdateStatus(@Param("ids") Collection<Long> ids, @Param("minutes") long minutes,
+                                  @Param("status") FlightStatus status);
 }
@@ -0,0 +1,23 @@
+package com.shubham.FlightManagementSystem.routing;
+
+import com.shubham.FlightManagementSystem.entity.Flight;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record Itinerary(List<Flight> legs, LocalDateTime departureTime, LocalDateTime arrivalTime,
+                        long durationMinutes, int connections, BigDecimal totalPrice) {
+    
+    static Itinerary of(List<Flight> legs, int seats) {
+        LocalDateTime departure = legs.get(0).getDepartureTime();
+        LocalDateTime arrival = legs.get(legs.size() - 1).getArrivalTime();
+        BigDecimal price = BigDecimal.ZERO;
+        for (Flight leg : legs) {
+            price = price.add(leg.getPrice());
+        }
+        return new Itinerary(legs, departure, arrival, Duration.between(departure, arrival).toMinutes(),
+                legs.size() - 1, price.multiply(BigDecimal.valueOf(seats)));
+    }
+}
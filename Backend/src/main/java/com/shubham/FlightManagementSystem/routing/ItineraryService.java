@@ -0,0 +1,118 @@
+package com.shubham.FlightManagementSystem.routing;
+
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.event.FlightChangedEvent;
+import com.shubham.FlightManagementSystem.event.FlightsImportedEvent;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Service
+public class ItineraryService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ItineraryService.class);
+    
+    @Autowired
+    private FlightRepository flightRepository;
+    
+    @Value("${flight.itineraries.min-connection-minutes:45}")
+    private int minConnectionMinutes;
+    
+    @Value("${flight.itineraries.max-legs:3}")
+    private int maxLegsLimit;
+    
+    @Value("${flight.itineraries.horizon-hours:48}")
+    private int horizonHours;
+    
+    // Replaced under the write lock when its structure changes; a search works on the one it read
+    private volatile Timetable timetable = Timetable.of(List.of());
+    
+    // Seat changes share the read side and add to the seat array in place; the write side keeps them
+    // out while a structural change copies the array, so none is lost between old and new timetable
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            List<Flight> snapshots = new ArrayList<>();
+            for (Flight flight : flightRepository.findAllWithAirports()) {
+                snapshots.add(FlightChangedEvent.snapshotOf(flight));
+            }
+            timetable = Timetable.of(snapshots);
+            log.info("Itinerary timetable built with {} flights", snapshots.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Returns up to limit itineraries, each the earliest arrival for a successively later first departure
+    public List<Itinerary> searchItineraries(String departureCode, String arrivalCode, LocalDateTime departureDate,
+                                             int seats, int maxLegs, int limit) {
+        Timetable current = timetable;
+        int legs = Math.max(1, Math.min(maxLegs, maxLegsLimit));
+        List<Itinerary> itineraries = new ArrayList<>();
+        LocalDateTime departAfter = departureDate;
+        while (itineraries.size() < limit) {
+            int[] path = current.earliestArrival(departureCode, arrivalCode, departAfter, seats, legs,
+                    minConnectionMinutes, horizonHours * 60);
+            if (path == null) {
+                break;
+            }
+            List<Flight> flights = new ArrayList<>(path.length);
+            for (int position : path) {
+                flights.add(current.flightAt(position));
+            }
+            itineraries.add(Itinerary.of(flights, seats));
+            departAfter = flights.get(0).getDepartureTime().plusMinutes(1);
+        }
+        return itineraries;
+    }
+    
+    @TransactionalEventListener
+    public void onFlightChanged(FlightChangedEvent event) {
+        if (event.type() == FlightChangedEvent.Type.SEATS) {
+            lock.readLock().lock();
+            try {
+                timetable.addSeats(event.flightId(), event.seatDelta());
+            } finally {
+                lock.readLock().unlock();
+            }
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (event.type() == FlightChangedEvent.Type.SAVED) {
+                Timetable updated = timetable.withUpdate(event.snapshot());
+                timetable = updated != null ? updated : timetable.withChanges(List.of(event.snapshot()), List.of());
+            } else {
+                timetable = timetable.withChanges(List.of(), List.of(event.flightId()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // A whole import chunk is merged into the timetable in one pass
+    @TransactionalEventListener
+    public void onFlightsImported(FlightsImportedEvent event) {
+        lock.writeLock().lock();
+        try {
+            timetable = timetable.withChanges(event.snapshots(), List.of());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.shubham.FlightManagementSystem.routing;
+
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.entity.Flight.FlightStatus;
+import com.shubham.FlightManagementSystem.event.FlightChangedEvent;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Flights packed into parallel arrays ordered by departure, the layout the Connection Scan
+// Algorithm walks. The structure is immutable once published, since searches read it without
+// locking; a status change copies the two arrays it touches. Seat counts live in one atomic array
+// shared by every version with the same structure, so a booking is a single add, not a copy.
+final class Timetable {
+    
+    private static final int UNREACHED = Integer.MAX_VALUE;
+    
+    private static final Comparator<Flight> BY_DEPARTURE =
+            Comparator.comparing(Flight::getDepartureTime).thenComparing(Flight::getId);
+    
+    private final Map<String, Integer> stopIds;
+    private final int[] departureStop;
+    private final int[] arrivalStop;
+    private final int[] departureMinute;
+    private final int[] arrivalMinute;
+    private final AtomicIntegerArray availableSeats;
+    private final boolean[] bookable;
+    private final Flight[] flights;
+    private final Map<Long, Integer> positions;
+    
+    private Timetable(Map<String, Integer> stopIds, List<Flight> ordered) {
+        int size = ordered.size();
+        this.stopIds = stopIds;
+        this.departureStop = new int[size];
+        this.arrivalStop = new int[size];
+        this.departureMinute = new int[size];
+        this.arrivalMinute = new int[size];
+        this.availableSeats = new AtomicIntegerArray(size);
+        this.bookable = new boolean[size];
+        this.flights = new Flight[size];
+        this.positions = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            Flight flight = ordered.get(i);
+            departureStop[i] = stopId(flight.getDepartureAirport().getCode());
+            arrivalStop[i] = stopId(flight.getArrivalAirport().getCode());
+            departureMinute[i] = minuteOf(flight.getDepartureTime());
+            arrivalMinute[i] = minuteOf(flight.getArrivalTime());
+            flights[i] = flight;
+            positions.put(flight.getId(), i);
+            patch(i, flight);
+        }
+    }
+    
+    private Timetable(Timetable base, Flight[] flights, boolean[] bookable) {
+        this.stopIds = base.stopIds;
+        this.departureStop = base.departureStop;
+        this.arrivalStop = base.arrivalStop;
+        this.departureMinute = base.departureMinute;
+        this.arrivalMinute = base.arrivalMinute;
+        this.availableSeats = base.availableSeats;
+        this.bookable = bookable;
+        this.flights = flights;
+        this.positions = base.positions;
+    }
+    
+    static Timetable of(Collection<Flight> flights) {
+        List<Flight> ordered = new ArrayList<>(flights);
+        ordered.sort(BY_DEPARTURE);
+        return new Timetable(new HashMap<>(), ordered);
+    }
+    
+    int size() {
+        return flights.length;
+    }
+    
+    // Seat and status changes keep the flight's slot; returns null when the flight has to move.
+    // The seat array is shared, so the new count is visible through this timetable as well.
+    Timetable withUpdate(Flight snapshot) {
+        Integer position = positions.get(snapshot.getId());
+        if (position == null) {
+            return null;
+        }
+        Flight current = flights[position];
+        boolean sameSlot = current.getDepartureTime().equals(snapshot.getDepartureTime())
+                && current.getArrivalTime().equals(snapshot.getArrivalTime())
+                && current.getDepartureAirport().getCode().equals(snapshot.getDepartureAirport().getCode())
+                && current.getArrivalAirport().getCode().equals(snapshot.getArrivalAirport().getCode());
+        if (!sameSlot) {
+            return null;
+        }
+        Timetable updated = new Timetable(this, flights.clone(), bookable.clone());
+        updated.flights[position] = snapshot;
+        updated.patch(position, snapshot);
+        return updated;
+    }
+    
+    void addSeats(Long flightId, int seatDelta) {
+        Integer position = positions.get(flightId);
+        if (position != null) {
+            availableSeats.addAndGet(position, seatDelta);
+        }
+    }
+    
+    // Merges the sorted upserts into the surviving entries instead of re-sorting the whole table.
+    // Surviving flights keep their current seat counts, which their snapshots no longer carry.
+    Timetable withChanges(Collection<Flight> upserts, Collection<Long> removals) {
+        Set<Long> replaced = new HashSet<>(removals);
+        List<Flight> added = new ArrayList<>();
+        for (Flight flight : upserts) {
+            replaced.add(flight.getId());
+            added.add(flight);
+        }
+        added.sort(BY_DEPARTURE);
+        List<Flight> merged = new ArrayList<>(flights.length + added.size());
+        Map<Long, Integer> carriedSeats = new HashMap<>(flights.length * 2);
+        int next = 0;
+        for (int i = 0; i < flights.length; i++) {
+            Flight flight = flights[i];
+            if (replaced.contains(flight.getId())) {
+                continue;
+            }
+            while (next < added.size() && BY_DEPARTURE.compare(added.get(next), flight) < 0) {
+                merged.add(added.get(next++));
+            }
+            merged.add(flight);
+            carriedSeats.put(flight.getId(), availableSeats.get(i));
+        }
+        merged.addAll(added.subList(next, added.size()));
+        Timetable updated = new Timetable(new HashMap<>(stopIds), merged);
+        carriedSeats.forEach((flightId, seats) -> updated.availableSeats.set(updated.positions.get(flightId), seats));
+        return updated;
+    }
+    
+    // Earliest arrival with at most maxLegs flights, scanning connections in departure order.
+    // Returns the positions of the chosen legs, or null when the destination is unreachable.
+    int[] earliestArrival(String originCode, String destinationCode, LocalDateTime departAfter,
+                          int seats, int maxLegs, int minConnectionMinutes, int horizonMinutes) {
+        Integer origin = stopIds.get(originCode);
+        Integer destination = stopIds.get(destinationCode);
+        if (origin == null || destination == null || origin.equals(destination)) {
+            return null;
+        }
+        int stops = stopIds.size();
+        int[][] arrival = new int[maxLegs + 1][stops];
+        int[][] via = new int[maxLegs + 1][stops];
+        for (int[] row : arrival) {
+            Arrays.fill(row, UNREACHED);
+        }
+        int start = minuteOf(departAfter);
+        int latestDeparture = start + horizonMinutes;
+        arrival[0][origin] = start;
+        int best = UNREACHED;
+        for (int c = firstDepartingAtOrAfter(start); c < flights.length; c++) {
+            int departure = departureMinute[c];
+            if (departure >= best || departure > latestDeparture) {
+                break;
+            }
+            if (!bookable[c] || availableSeats.get(c) < seats) {
+                continue;
+            }
+            int from = departureStop[c];
+            int to = arrivalStop[c];
+            for (int legs = 1; legs <= maxLegs; legs++) {
+                int ready = arrival[legs - 1][from];
+                if (ready == UNREACHED) {
+                    continue;
+                }
+                int earliestBoarding = legs == 1 ? ready : ready + minConnectionMinutes;
+                if (departure >= earliestBoarding && arrivalMinute[c] < arrival[legs][to]) {
+                    arrival[legs][to] = arrivalMinute[c];
+                    via[legs][to] = c;
+                    if (to == destination && arrivalMinute[c] < best) {
+                        best = arrivalMinute[c];
+                    }
+                }
+            }
+        }
+        if (best == UNREACHED) {
+            return null;
+        }
+        int legs = 1;
+        while (arrival[legs][destination] != best) {
+            legs++;
+        }
+        int[] path = new int[legs];
+        int stop = destination;
+        for (int leg = legs; leg >= 1; leg--) {
+            int c = via[leg][stop];
+            path[leg - 1] = c;
+            stop = departureStop[c];
+        }
+        return path;
+    }
+    
+    // A copy carrying the current seat count
+    Flight flightAt(int position) {
+        Flight flight = FlightChangedEvent.snapshotOf(flights[position]);
+        flight.setAvailableSeats(availableSeats.get(position));
+        return flight;
+    }
+    
+    private int firstDepartingAtOrAfter(int minute) {
+        int low = 0;
+        int high = flights.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (departureMinute[mid] < minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private void patch(int position, Flight flight) {
+        availableSeats.set(position, flight.getAvailableSeats());
+        bookable[position] = flight.getStatus() == FlightStatus.SCHEDULED || flight.getStatus() == FlightStatus.DELAYED;
+    }
+    
+    private int stopId(String code) {
+        return stopIds.computeIfAbsent(code, key -> stopIds.size());
+    }
+    
+    private static int minuteOf(LocalDateTime time) {
+        return (int) (time.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+}
@@ -1,12 +1,20 @@
 package com.shubham.FlightManagementSystem.service;
 
+import com.shubham.FlightManagementSystem.cache.AirportCache;
 import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.event.AirportChangedEvent;
+import com.shubham.FlightManagementSystem.index.AirportSuggestIndex;
 import com.shubham.FlightManagementSystem.repository.AirportRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class AirportService {
@@ -14,34 +22,66 @@ public class AirportService {
     @Autowired
     private AirportRepository airportRepository;
     
+    @Autowired
+    private AirportCache airportCache;
+    
+    @Autowired
+    private AirportSuggestIndex airportSuggestIndex;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public List<Airport> getAllAirports() {
-        return airportRepository.findAll();
+        return airportCache.getAll();
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Airport> getAirportsPage(Long afterId, int limit) {
+        return airportRepository.findPageAfterId(afterId, PageRequest.ofSize(limit));
+    }
+    
+    @Transactional(readOnly = true)
+    public void streamAllAirports(Consumer<Airport> consumer) {
+        try (Stream<Airport> airports = airportRepository.streamAll()) {
+            airports.forEach(consumer);
+        }
     }
     
     public Optional<Airport> getAirportById(Long id) {
-        return airportRepository.findById(id);
+        return airportCache.getById(id);
     }
     
     public Optional<Airport> getAirportByCode(String code) {
-        return airportRepository.findByCode(code);
+        return airportCache.getByCode(code);
     }
     
+    @Transactional(readOnly = true)
     public List<Airport> getAirportsByCity(String city) {
         return airportRepository.findByCity(city);
     }
     
+    @Transactional(readOnly = true)
     public List<Airport> getAirportsByCountry(String country) {
         return airportRepository.findByCountry(country);
     }
     
+    @Transactional(readOnly = true)
     public List<Airport> searchAirports(String keyword) {
         return airportRepository.searchAirports(keyword);
     }
     
+    public List<Airport> suggestAirports(String query, int limit) {
+        return airportSuggestIndex.suggest(query, limit);
+    }
+    
+    @Transactional
     public Airport saveAirport(Airport airport) {
-        return airportRepository.save(airport);
+        Airport savedAirport = airportRepository.save(airport);
+        eventPublisher.publishEvent(AirportChangedEvent.saved(savedAirport));
+        return savedAirport;
     }
     
+    @Transactional
     public Airport updateAirport(Long id, Airport airportDetails) {
         Optional<Airport> optionalAirport = airportRepository.findById(id);
         if (optionalAirport.isPresent()) {
@@ -50,16 +90,24 @@ public class AirportService {
             airport.setName(airportDetails.getName());
             airport.setCity(airportDetails.getCity());
             airport.setCountry(airportDetails.getCountry());
-            return airportRepository.save(airport);
+            Airport updatedAirport = airportRepository.save(airport);
+            eventPublisher.publishEvent(AirportChangedEvent.saved(updatedAirport));
+            return updatedAirport;
         }
         throw new RuntimeException("Airport not found with id: " + id);
     }
     
+    @Transactional
     public void deleteAirport(Long id) {
         airportRepository.deleteById(id);
+        eventPublisher.publishEvent(AirportChangedEvent.deleted(id));
     }
     
     public boolean airportExists(String code) {
-        return airportRepository.existsByCode(code);
+        return airportCache.exists(code);
+    }
+    
+    public AirportCache.Stats getCacheStats() {
+        return airportCache.stats();
     }
 }
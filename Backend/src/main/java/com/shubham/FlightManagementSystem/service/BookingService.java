@@ -2,65 +2,200 @@ package com.shubham.FlightManagementSystem.service;
 
 import com.shubham.FlightManagementSystem.entity.Booking;
 import com.shubham.FlightManagementSystem.entity.Booking.BookingStatus;
-//import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.entity.IdempotencyRecord;
+import com.shubham.FlightManagementSystem.event.HoldPlacedEvent;
+import com.shubham.FlightManagementSystem.journal.BookingJournal;
+import com.shubham.FlightManagementSystem.journal.JournalEvent;
+import com.shubham.FlightManagementSystem.metrics.FlightMetrics;
+import com.shubham.FlightManagementSystem.reference.BookingReferenceGenerator;
 import com.shubham.FlightManagementSystem.repository.BookingRepository;
+import com.shubham.FlightManagementSystem.repository.IdempotencyRecordRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class BookingService {
     
+    private static final int STREAM_BATCH_SIZE = 500;
+    
+    // Shorter terms have no trigram to drive the index and would scan the table
+    private static final int MIN_SEARCH_TERM_LENGTH = 3;
+    
+    private static final Set<String> SEARCH_FIELDS = Set.of("name", "email", "ref");
+    
     @Autowired
     private BookingRepository bookingRepository;
     
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    
     @Autowired
     private FlightService flightService;
     
+    @Autowired
+    private BookingReferenceGenerator referenceGenerator;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private BookingJournal journal;
+    
+    @Autowired
+    private FlightMetrics flightMetrics;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${flight.holds.ttl:PT10M}")
+    private Duration holdTtl;
+    
+    @Value("${flight.booking-search.max-candidates:1000}")
+    private int searchMaxCandidates;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Transactional(readOnly = true)
     public List<Booking> getAllBookings() {
         return bookingRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public List<Booking> getBookingsPage(Long afterId, int limit) {
+        return bookingRepository.findPageAfterId(afterId, PageRequest.ofSize(limit));
+    }
+    
+    // Same batching as FlightService.streamAllFlights
+    @Transactional(readOnly = true)
+    public void streamAllBookings(Consumer<Booking> consumer) {
+        try (Stream<Booking> bookings = bookingRepository.streamAllWithFlights()) {
+            Iterator<Booking> iterator = bookings.iterator();
+            int streamed = 0;
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                if (++streamed % STREAM_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+    
     public Optional<Booking> getBookingById(Long id) {
         return bookingRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Booking> getBookingByReference(String bookingReference) {
         return bookingRepository.findByBookingReference(bookingReference);
     }
     
+    @Transactional(readOnly = true)
     public List<Booking> getBookingsByPassengerName(String passengerName) {
         return bookingRepository.findByPassengerName(passengerName);
     }
     
+    @Transactional(readOnly = true)
     public List<Booking> getBookingsByEmail(String email) {
         return bookingRepository.findByEmail(email);
     }
     
+    @Transactional(readOnly = true)
     public List<Booking> getBookingsByFlightId(Long flightId) {
         return bookingRepository.findByFlightId(flightId);
     }
     
+    @Transactional(readOnly = true)
     public List<Booking> getBookingsByStatus(BookingStatus status) {
         return bookingRepository.findByStatus(status);
     }
     
-    public List<Booking> searchBookings(String keyword) {
-        return bookingRepository.searchBookings(keyword);
+    // Accepts "email:", "ref:" and "name:" prefixes to search a single field
+    @Transactional(readOnly = true)
+    public List<Booking> searchBookings(String keyword, int page, int size) {
+        String term = keyword.trim().toLowerCase(Locale.ROOT);
+        String field = "";
+        int colon = term.indexOf(':');
+        if (colon > 0 && SEARCH_FIELDS.contains(term.substring(0, colon))) {
+            field = term.substring(0, colon);
+            term = term.substring(colon + 1).trim();
+        }
+        if (term.length() < MIN_SEARCH_TERM_LENGTH) {
+            return List.of();
+        }
+        String pattern = "%" + term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        // Ranking is over the first searchMaxCandidates matches, so pages end there
+        if ((long) page * size >= searchMaxCandidates) {
+            return List.of();
+        }
+        PageRequest pageRequest = PageRequest.of(page, size);
+        List<Long> ids = switch (field) {
+            case "name" -> bookingRepository.searchBookingIdsByPassengerName(term, pattern, searchMaxCandidates, pageRequest);
+            case "email" -> bookingRepository.searchBookingIdsByEmail(term, pattern, searchMaxCandidates, pageRequest);
+            case "ref" -> bookingRepository.searchBookingIdsByReference(term, pattern, searchMaxCandidates, pageRequest);
+            default -> bookingRepository.searchBookingIds(term, pattern, searchMaxCandidates, pageRequest);
+        };
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Load the page with its flights in one statement, then restore the ranked order
+        Map<Long, Booking> byId = bookingRepository.findAllWithFlightsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<Booking> ranked = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Booking booking = byId.get(id);
+            if (booking != null) {
+                ranked.add(booking);
+            }
+        }
+        return ranked;
     }
     
+    @Transactional(readOnly = true)
     public List<Booking> getUpcomingBookings() {
         return bookingRepository.findUpcomingBookings(LocalDateTime.now());
     }
     
     public Booking createBooking(Booking booking) {
+        long started = System.nanoTime();
+        try {
+            return placeBooking(booking);
+        } finally {
+            flightMetrics.createBooking().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private Booking placeBooking(Booking booking) {
         // Generate unique booking reference
         String bookingReference = generateBookingReference();
         booking.setBookingReference(bookingReference);
@@ -71,10 +206,131 @@ public class BookingService {
         
         // Reserve seats on the flight
         if (!flightService.reserveSeats(booking.getFlight().getId(), booking.getNumberOfSeats())) {
+            flightMetrics.oversellAttempted();
             throw new RuntimeException("Not enough seats available on flight: " + booking.getFlight().getFlightNumber());
         }
         
-        return bookingRepository.save(booking);
+        Booking savedBooking = bookingRepository.save(booking);
+        journalCreated(savedBooking);
+        return savedBooking;
+    }
+    
+    // Reserves seats like createBooking, but as a PENDING hold that HoldExpirer cancels at
+    // holdExpiresAt unless confirmHold gets there first
+    public Booking holdBooking(Booking booking) {
+        booking.setStatus(BookingStatus.PENDING);
+        // Whole milliseconds, so the expirer's deadline and the stored value agree exactly
+        booking.setHoldExpiresAt(LocalDateTime.now().plus(holdTtl).truncatedTo(ChronoUnit.MILLIS));
+        Booking savedBooking = placeBooking(booking);
+        eventPublisher.publishEvent(new HoldPlacedEvent(savedBooking.getId(), savedBooking.getHoldExpiresAt()));
+        return savedBooking;
+    }
+    
+    // Empty when the booking is not a live hold: unknown, already confirmed, cancelled or expired
+    public Optional<Booking> confirmHold(Long id) {
+        if (bookingRepository.confirmHold(id, LocalDateTime.now()) == 0) {
+            return Optional.empty();
+        }
+        Optional<Booking> booking = bookingRepository.findById(id);
+        booking.ifPresent(confirmed -> journal.record(JournalEvent.Type.BOOKING_CONFIRMED, id, confirmed.getFlight().getId(), 0));
+        return booking;
+    }
+    
+    // Cancels those of ids that are still PENDING and past their expiry, returning their seats
+    // with one UPDATE per flight
+    public int expireHolds(Collection<Long> ids) {
+        List<Booking> expired = bookingRepository.lockExpiredHolds(ids, LocalDateTime.now());
+        Map<Long, Integer> seatsByFlight = new HashMap<>();
+        for (Booking booking : expired) {
+            Long flightId = booking.getFlight().getId();
+            booking.setStatus(BookingStatus.CANCELLED);
+            seatsByFlight.merge(flightId, booking.getNumberOfSeats(), Integer::sum);
+            journal.record(JournalEvent.Type.SEATS_RELEASED, booking.getId(), flightId, booking.getNumberOfSeats());
+            journal.record(JournalEvent.Type.BOOKING_CANCELLED, booking.getId(), flightId, 0);
+        }
+        seatsByFlight.forEach(flightService::releaseSeats);
+        return expired.size();
+    }
+    
+    // Books a group in one transaction: flights are loaded in one statement, seats are reserved
+    // with one UPDATE per flight and the bookings are inserted in JDBC batches. ATOMIC fails the
+    // whole batch on the first problem; PER_ITEM books what it can and reports the rest.
+    public BatchResult createBookings(List<Booking> bookings, BatchMode mode) {
+        String[] errors = new String[bookings.size()];
+        Map<Long, Flight> flights = flightService.getFlightsByIds(bookings.stream()
+                        .filter(booking -> booking.getFlight() != null && booking.getFlight().getId() != null)
+                        .map(booking -> booking.getFlight().getId())
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Flight::getId, Function.identity()));
+        
+        Map<Flight, List<Integer>> byFlight = new LinkedHashMap<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            Flight flight = booking.getFlight() == null ? null : flights.get(booking.getFlight().getId());
+            if (flight == null) {
+                errors[i] = "Flight not found";
+            } else {
+                booking.setFlight(flight);
+                booking.setBookingReference(generateBookingReference());
+                if (booking.getNumberOfSeats() != null) {
+                    booking.setTotalAmount(flight.getPrice().multiply(BigDecimal.valueOf(booking.getNumberOfSeats())));
+                }
+                errors[i] = firstViolation(booking);
+            }
+            if (errors[i] != null) {
+                if (mode == BatchMode.ATOMIC) {
+                    throw new RuntimeException("Booking " + i + ": " + errors[i]);
+                }
+                continue;
+            }
+            byFlight.computeIfAbsent(flight, key -> new ArrayList<>()).add(i);
+        }
+        
+        for (Map.Entry<Flight, List<Integer>> group : byFlight.entrySet()) {
+            Flight flight = group.getKey();
+            int seats = group.getValue().stream().mapToInt(i -> bookings.get(i).getNumberOfSeats()).sum();
+            if (flightService.reserveSeats(flight.getId(), seats)) {
+                continue;
+            }
+            if (mode == BatchMode.ATOMIC) {
+                flightMetrics.oversellAttempted();
+                throw new RuntimeException("Not enough seats available on flight: " + flight.getFlightNumber());
+            }
+            // Not everyone fits, so book the group's items one at a time in request order
+            for (int i : group.getValue()) {
+                if (!flightService.reserveSeats(flight.getId(), bookings.get(i).getNumberOfSeats())) {
+                    flightMetrics.oversellAttempted();
+                    errors[i] = "Not enough seats available on flight: " + flight.getFlightNumber();
+                }
+            }
+        }
+        
+        List<Booking> accepted = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            if (errors[i] == null) {
+                accepted.add(bookings.get(i));
+            }
+        }
+        bookingRepository.saveAll(accepted);
+        accepted.forEach(this::journalCreated);
+        
+        List<BatchItemResult> items = new ArrayList<>(bookings.size());
+        for (int i = 0; i < bookings.size(); i++) {
+            items.add(errors[i] == null
+                    ? new BatchItemResult(i, bookings.get(i), null)
+                    : new BatchItemResult(i, null, errors[i]));
+        }
+        return new BatchResult(mode, bookings.size(), accepted.size(), items);
+    }
+    
+    // The Idempotency-Key record commits or rolls back together with the booking. The insert goes through
+    // the repository so a duplicate key surfaces as DataIntegrityViolationException for IdempotencyStore
+    public Booking createBooking(Booking booking, String idempotencyKey, String fingerprint, LocalDateTime expiresAt) {
+        Booking savedBooking = createBooking(booking);
+        idempotencyRecordRepository.saveAndFlush(
+                new IdempotencyRecord(idempotencyKey, fingerprint, savedBooking.getId(), expiresAt));
+        return savedBooking;
     }
     
     public Booking updateBooking(Long id, Booking bookingDetails) {
@@ -82,14 +338,18 @@ public class BookingService {
         if (optionalBooking.isPresent()) {
             Booking booking = optionalBooking.get();
             
-            // If number of seats changed, update seat reservation
+            // If number of seats changed, reserve or release only the difference. The seat inventory hands
+            // released seats back on commit, so releasing everything first would leave a full flight unchangeable
             if (!booking.getNumberOfSeats().equals(bookingDetails.getNumberOfSeats())) {
-                // Release old seats
-                flightService.releaseSeats(booking.getFlight().getId(), booking.getNumberOfSeats());
-                // Reserve new seats
-                if (!flightService.reserveSeats(booking.getFlight().getId(), bookingDetails.getNumberOfSeats())) {
+                int difference = bookingDetails.getNumberOfSeats() - booking.getNumberOfSeats();
+                if (difference < 0) {
+                    flightService.releaseSeats(booking.getFlight().getId(), -difference);
+                } else if (!flightService.reserveSeats(booking.getFlight().getId(), difference)) {
+                    flightMetrics.oversellAttempted();
                     throw new RuntimeException("Not enough seats available");
                 }
+                journal.record(JournalEvent.Type.SEATS_RELEASED, id, booking.getFlight().getId(), booking.getNumberOfSeats());
+                journal.record(JournalEvent.Type.SEATS_RESERVED, id, booking.getFlight().getId(), bookingDetails.getNumberOfSeats());
             }
             
             booking.setPassengerName(bookingDetails.getPassengerName());
@@ -108,8 +368,18 @@ public class BookingService {
     }
     
     public void cancelBooking(Long id) {
+        long started = System.nanoTime();
+        try {
+            cancel(id);
+        } finally {
+            flightMetrics.cancelBooking().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private void cancel(Long id) {
         Optional<Booking> optionalBooking = bookingRepository.findById(id);
-        if (optionalBooking.isPresent()) {
+        // Cancelling twice, or cancelling an expired hold, must not return the seats again
+        if (optionalBooking.isPresent() && optionalBooking.get().getStatus() != BookingStatus.CANCELLED) {
             Booking booking = optionalBooking.get();
             
             // Release seats back to the flight
@@ -118,6 +388,8 @@ public class BookingService {
             // Update booking status
             booking.setStatus(BookingStatus.CANCELLED);
             bookingRepository.save(booking);
+            journal.record(JournalEvent.Type.SEATS_RELEASED, id, booking.getFlight().getId(), booking.getNumberOfSeats());
+            journal.record(JournalEvent.Type.BOOKING_CANCELLED, id, booking.getFlight().getId(), 0);
         }
     }
     
@@ -126,20 +398,48 @@ public class BookingService {
         if (optionalBooking.isPresent()) {
             Booking booking = optionalBooking.get();
             
-            // Release seats if booking was confirmed
-            if (booking.getStatus() == BookingStatus.CONFIRMED) {
+            // Release seats if booking was confirmed or is still held
+            if (booking.getStatus() == BookingStatus.CONFIRMED || booking.getStatus() == BookingStatus.PENDING) {
                 flightService.releaseSeats(booking.getFlight().getId(), booking.getNumberOfSeats());
+                journal.record(JournalEvent.Type.SEATS_RELEASED, id, booking.getFlight().getId(), booking.getNumberOfSeats());
             }
             
             bookingRepository.deleteById(id);
+            journal.record(JournalEvent.Type.BOOKING_DELETED, id, booking.getFlight().getId(), 0);
         }
     }
     
+    private void journalCreated(Booking booking) {
+        JournalEvent.Type type = booking.getStatus() == BookingStatus.PENDING
+                ? JournalEvent.Type.BOOKING_HELD : JournalEvent.Type.BOOKING_CREATED;
+        journal.record(type, booking.getId(), booking.getFlight().getId(), 0);
+        journal.record(JournalEvent.Type.SEATS_RESERVED, booking.getId(), booking.getFlight().getId(), booking.getNumberOfSeats());
+    }
+    
+    private String firstViolation(Booking booking) {
+        Set<ConstraintViolation<Booking>> violations = validator.validate(booking);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        ConstraintViolation<Booking> violation = violations.iterator().next();
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+    
+    // Unique by construction, so no existence check against the table is needed
     private String generateBookingReference() {
-        return "BK" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return referenceGenerator.nextReference();
     }
     
+    @Transactional(readOnly = true)
     public boolean bookingExists(String bookingReference) {
         return bookingRepository.existsByBookingReference(bookingReference);
     }
+    
+    public enum BatchMode {
+        ATOMIC, PER_ITEM
+    }
+    
+    public record BatchItemResult(int index, Booking booking, String error) {}
+    
+    public record BatchResult(BatchMode mode, int requested, int booked, List<BatchItemResult> items) {}
 }
@@ -0,0 +1,344 @@
+package com.shubham.FlightManagementSystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.entity.Flight.FlightStatus;
+import com.shubham.FlightManagementSystem.event.FlightChangedEvent;
+import com.shubham.FlightManagementSystem.event.FlightsImportedEvent;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+// Bulk schedule import. The body is read line by line and cut into chunks that are parsed and
+// validated in parallel; chunks are then written in order, one transaction and a few JDBC
+// batches each, so memory stays bounded by the chunks in flight rather than the file.
+@Service
+public class FlightImportService {
+    
+    private static final Logger log = LoggerFactory.getLogger(FlightImportService.class);
+    
+    // A multiple of hibernate.jdbc.batch_size
+    private static final int CHUNK_SIZE = 1000;
+    
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    
+    private static final List<String> CSV_COLUMNS = List.of("flightNumber", "departureCode", "arrivalCode",
+            "departureTime", "arrivalTime", "aircraftType", "totalSeats", "price");
+    
+    @Autowired
+    private FlightRepository flightRepository;
+    
+    @Autowired
+    private AirportService airportService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    public ImportReport importFlights(InputStream body, Format format) throws IOException {
+        Map<String, Airport> airports = new HashMap<>();
+        for (Airport airport : airportService.getAllAirports()) {
+            airports.put(airport.getCode(), airport);
+        }
+        Set<String> flightNumbers = new HashSet<>(flightRepository.findAllFlightNumbers());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int window = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+        Deque<CompletableFuture<List<ParsedRow>>> inFlight = new ArrayDeque<>();
+        ImportReport.Builder report = new ImportReport.Builder();
+        
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        int[] columns = format == Format.CSV ? csvColumns(reader.readLine()) : null;
+        long lineNumber = format == Format.CSV ? 1 : 0;
+        List<String> lines = new ArrayList<>(CHUNK_SIZE);
+        long firstLine = lineNumber + 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (lines.isEmpty()) {
+                firstLine = lineNumber;
+            }
+            lines.add(line);
+            if (lines.size() == CHUNK_SIZE) {
+                inFlight.add(parseAsync(lines, firstLine, format, columns, airports));
+                lines = new ArrayList<>(CHUNK_SIZE);
+                if (inFlight.size() >= window) {
+                    write(inFlight.poll().join(), flightNumbers, transactionTemplate, report);
+                }
+            }
+        }
+        if (!lines.isEmpty()) {
+            inFlight.add(parseAsync(lines, firstLine, format, columns, airports));
+        }
+        while (!inFlight.isEmpty()) {
+            write(inFlight.poll().join(), flightNumbers, transactionTemplate, report);
+        }
+        ImportReport result = report.build();
+        log.info("Flight import finished: {} rows, {} imported, {} failed", result.rows(), result.imported(), result.failed());
+        return result;
+    }
+    
+    private CompletableFuture<List<ParsedRow>> parseAsync(List<String> lines, long firstLine, Format format,
+                                                         int[] columns, Map<String, Airport> airports) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<ParsedRow> rows = new ArrayList<>(lines.size());
+            long lineNumber = firstLine;
+            for (String line : lines) {
+                rows.add(parse(line, lineNumber++, format, columns, airports));
+            }
+            return rows;
+        });
+    }
+    
+    private ParsedRow parse(String line, long lineNumber, Format format, int[] columns, Map<String, Airport> airports) {
+        ScheduleRow row;
+        try {
+            row = format == Format.CSV ? csvRow(line, columns) : objectMapper.readValue(line, ScheduleRow.class);
+        } catch (Exception e) {
+            return ParsedRow.failed(lineNumber, null, "Malformed row: " + e.getMessage());
+        }
+        try {
+            return ParsedRow.parsed(lineNumber, toFlight(row, airports));
+        } catch (RuntimeException e) {
+            return ParsedRow.failed(lineNumber, row.flightNumber(), e.getMessage());
+        }
+    }
+    
+    // The same checks as the Flight constraints and FlightService.saveFlight, without any lookups
+    private static Flight toFlight(ScheduleRow row, Map<String, Airport> airports) {
+        if (isBlank(row.flightNumber())) {
+            throw new RuntimeException("Flight number is required");
+        }
+        if (isBlank(row.aircraftType())) {
+            throw new RuntimeException("Aircraft type is required");
+        }
+        Airport departure = airports.get(row.departureCode());
+        if (departure == null) {
+            throw new RuntimeException("Departure airport not found: " + row.departureCode());
+        }
+        Airport arrival = airports.get(row.arrivalCode());
+        if (arrival == null) {
+            throw new RuntimeException("Arrival airport not found: " + row.arrivalCode());
+        }
+        if (departure.getCode().equals(arrival.getCode())) {
+            throw new RuntimeException("Departure and arrival airports must differ");
+        }
+        if (row.departureTime() == null || row.arrivalTime() == null) {
+            throw new RuntimeException("Departure and arrival times are required");
+        }
+        if (!row.arrivalTime().isAfter(row.departureTime())) {
+            throw new RuntimeException("Arrival time must be after departure time");
+        }
+        if (row.totalSeats() == null || row.totalSeats() <= 0) {
+            throw new RuntimeException("Total seats must be positive");
+        }
+        if (row.price() == null || row.price().signum() <= 0) {
+            throw new RuntimeException("Price must be positive");
+        }
+        Flight flight = new Flight(row.flightNumber().trim(), departure, arrival, row.departureTime(),
+                row.arrivalTime(), row.aircraftType().trim(), row.totalSeats(), row.price());
+        flight.setAvailableSeats(row.totalSeats());
+        if (!isBlank(row.status())) {
+            try {
+                flight.setStatus(FlightStatus.valueOf(row.status().trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unknown flight status: " + row.status());
+            }
+        }
+        return flight;
+    }
+    
+    // Duplicates are settled here, in file order, so the first occurrence of a number wins
+    private void write(List<ParsedRow> rows, Set<String> flightNumbers, TransactionTemplate transactionTemplate,
+                       ImportReport.Builder report) {
+        List<ParsedRow> accepted = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            if (row.error() != null) {
+                report.failed(row.lineNumber(), row.flightNumber(), row.error());
+            } else if (!flightNumbers.add(row.flightNumber())) {
+                report.failed(row.lineNumber(), row.flightNumber(), "Duplicate flight number: " + row.flightNumber());
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Flight> snapshots = new ArrayList<>(accepted.size());
+                for (ParsedRow row : accepted) {
+                    entityManager.persist(row.flight());
+                    snapshots.add(FlightChangedEvent.snapshotOf(row.flight()));
+                }
+                entityManager.flush();
+                entityManager.clear();
+                eventPublisher.publishEvent(new FlightsImportedEvent(snapshots));
+            });
+            report.imported(accepted.size());
+        } catch (RuntimeException e) {
+            // A row the database still rejects (e.g. a flight number inserted meanwhile) fails its chunk
+            // Nothing was written, so later rows may use the chunk's numbers again
+            String message = "Rejected by the database: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            for (ParsedRow row : accepted) {
+                flightNumbers.remove(row.flightNumber());
+                report.failed(row.lineNumber(), row.flightNumber(), message);
+            }
+        }
+    }
+    
+    private static int[] csvColumns(String header) {
+        if (header == null) {
+            throw new RuntimeException("CSV header is missing");
+        }
+        List<String> names = splitCsv(header).stream().map(String::trim).toList();
+        int[] columns = new int[CSV_COLUMNS.size() + 1];
+        for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+            columns[i] = names.indexOf(CSV_COLUMNS.get(i));
+            if (columns[i] < 0) {
+                throw new RuntimeException("CSV header is missing column: " + CSV_COLUMNS.get(i));
+            }
+        }
+        columns[CSV_COLUMNS.size()] = names.indexOf("status");
+        return columns;
+    }
+    
+    private static ScheduleRow csvRow(String line, int[] columns) {
+        List<String> fields = splitCsv(line);
+        String totalSeats = field(fields, columns[6]);
+        String price = field(fields, columns[7]);
+        String departureTime = field(fields, columns[3]);
+        String arrivalTime = field(fields, columns[4]);
+        return new ScheduleRow(field(fields, columns[0]), field(fields, columns[1]), field(fields, columns[2]),
+                departureTime == null ? null : LocalDateTime.parse(departureTime),
+                arrivalTime == null ? null : LocalDateTime.parse(arrivalTime),
+                field(fields, columns[5]),
+                totalSeats == null ? null : Integer.valueOf(totalSeats),
+                price == null ? null : new BigDecimal(price),
+                field(fields, columns[8]));
+    }
+    
+    private static String field(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    // RFC 4180 fields on one line: commas inside double quotes, "" for a literal quote
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+    
+    public enum Format {
+        CSV, NDJSON
+    }
+    
+    public record ScheduleRow(String flightNumber, String departureCode, String arrivalCode,
+                              LocalDateTime departureTime, LocalDateTime arrivalTime, String aircraftType,
+                              Integer totalSeats, BigDecimal price, String status) {}
+    
+    private record ParsedRow(long lineNumber, String flightNumber, Flight flight, String error) {
+        
+        static ParsedRow parsed(long lineNumber, Flight flight) {
+            return new ParsedRow(lineNumber, flight.getFlightNumber(), flight, null);
+        }
+        
+        static ParsedRow failed(long lineNumber, String flightNumber, String error) {
+            return new ParsedRow(lineNumber, flightNumber, null, error);
+        }
+    }
+    
+    public record RowError(long line, String flightNumber, String message) {}
+    
+    // Only the first MAX_REPORTED_ERRORS errors are listed; failed counts all of them
+    public record ImportReport(long rows, long imported, long failed, List<RowError> errors) {
+        
+        static class Builder {
+            private long imported;
+            private long failed;
+            private final List<RowError> errors = new ArrayList<>();
+            
+            void imported(int count) {
+                imported += count;
+            }
+            
+            void failed(long line, String flightNumber, String message) {
+                failed++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new RowError(line, flightNumber, message));
+                }
+            }
+            
+            ImportReport build() {
+                return new ImportReport(imported + failed, imported, failed, List.copyOf(errors));
+            }
+        }
+    }
+}
@@ -3,72 +3,166 @@ package com.shubham.FlightManagementSystem.service;
 // import com.shubham.FlightManagementSystem.entity.Airport;
 import com.shubham.FlightManagementSystem.entity.Flight;
 import com.shubham.FlightManagementSystem.entity.Flight.FlightStatus;
+import com.shubham.FlightManagementSystem.event.FlightChangedEvent;
+import com.shubham.FlightManagementSystem.event.SeatCount;
+import com.shubham.FlightManagementSystem.index.FlightSearchIndex;
+import com.shubham.FlightManagementSystem.inventory.SeatInventory;
+import com.shubham.FlightManagementSystem.metrics.FlightMetrics;
 import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import com.shubham.FlightManagementSystem.web.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-// import java.math.BigDecimal;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class FlightService {
     
+    private static final int STREAM_BATCH_SIZE = 500;
+    
     @Autowired
     private FlightRepository flightRepository;
     
     @Autowired
     private AirportService airportService;
     
+    @Autowired
+    private FlightSearchIndex flightSearchIndex;
+    
+    @Autowired
+    private SeatInventory seatInventory;
+    
+    @Autowired
+    private FlightMetrics flightMetrics;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Transactional(readOnly = true)
     public List<Flight> getAllFlights() {
         return flightRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public List<Flight> getFlightsPage(Long afterId, int limit) {
+        return flightRepository.findPageAfterId(afterId, PageRequest.ofSize(limit));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Flight> getFlightsPageByDepartureTime(KeysetCursor.TimeKey after, int limit) {
+        if (after == null) {
+            return flightRepository.findFirstPageByDepartureTime(PageRequest.ofSize(limit));
+        }
+        return flightRepository.findPageAfterDepartureTime(after.departureTime(), after.id(), PageRequest.ofSize(limit));
+    }
+    
+    // Hands rows to the consumer as they are fetched and clears the persistence context
+    // every batch, so memory does not grow with the table
+    @Transactional(readOnly = true)
+    public void streamAllFlights(Consumer<Flight> consumer) {
+        try (Stream<Flight> flights = flightRepository.streamAllWithAirports()) {
+            Iterator<Flight> iterator = flights.iterator();
+            int streamed = 0;
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                if (++streamed % STREAM_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+    
     public Optional<Flight> getFlightById(Long id) {
         return flightRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
+    public List<Flight> getFlightsByIds(Collection<Long> ids) {
+        return flightRepository.findAllById(ids);
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Flight> getFlightByNumber(String flightNumber) {
         return flightRepository.findByFlightNumber(flightNumber);
     }
     
+    @Transactional(readOnly = true)
     public List<Flight> getFlightsByDepartureAirport(String airportCode) {
         return flightRepository.findByDepartureAirportCode(airportCode);
     }
     
+    @Transactional(readOnly = true)
     public List<Flight> getFlightsByArrivalAirport(String airportCode) {
         return flightRepository.findByArrivalAirportCode(airportCode);
     }
     
+    // Served from the in-memory index when it is enabled, so no transaction is opened here
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Flight> searchFlights(String departureCode, String arrivalCode, 
                                     LocalDateTime departureDate, Integer seats) {
-        return flightRepository.searchFlights(departureCode, arrivalCode, departureDate, seats);
+        long started = System.nanoTime();
+        try {
+            if (flightSearchIndex.isReady()) {
+                return flightSearchIndex.search(departureCode, arrivalCode, departureDate, seats);
+            }
+            return flightRepository.searchFlights(departureCode, arrivalCode, departureDate, seats);
+        } finally {
+            flightMetrics.searchFlights().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    public FlightSearchIndex.ConsistencyReport checkSearchIndex(boolean repair) {
+        if (!flightSearchIndex.isReady()) {
+            throw new RuntimeException("Flight search index is disabled");
+        }
+        return flightSearchIndex.checkConsistency(repair);
     }
     
+    @Transactional(readOnly = true)
     public List<Flight> getAvailableFlights() {
         return flightRepository.findAvailableFlights();
     }
     
+    @Transactional(readOnly = true)
     public List<Flight> getFlightsByStatus(FlightStatus status) {
         return flightRepository.findByStatus(status);
     }
     
     public Flight saveFlight(Flight flight) {
-        // Validate airports exist
-        if (!airportService.airportExists(flight.getDepartureAirport().getCode())) {
-            throw new RuntimeException("Departure airport not found: " + flight.getDepartureAirport().getCode());
-        }
-        if (!airportService.airportExists(flight.getArrivalAirport().getCode())) {
-            throw new RuntimeException("Arrival airport not found: " + flight.getArrivalAirport().getCode());
-        }
+        // Validate airports exist; both lookups are answered by the airport cache
+        String departureCode = flight.getDepartureAirport().getCode();
+        flight.setDepartureAirport(airportService.getAirportByCode(departureCode)
+                .orElseThrow(() -> new RuntimeException("Departure airport not found: " + departureCode)));
+        String arrivalCode = flight.getArrivalAirport().getCode();
+        flight.setArrivalAirport(airportService.getAirportByCode(arrivalCode)
+                .orElseThrow(() -> new RuntimeException("Arrival airport not found: " + arrivalCode)));
         
         // Set initial available seats to total seats
         flight.setAvailableSeats(flight.getTotalSeats());
         
-        return flightRepository.save(flight);
+        Flight savedFlight = flightRepository.save(flight);
+        eventPublisher.publishEvent(FlightChangedEvent.saved(savedFlight));
+        return savedFlight;
     }
     
     public Flight updateFlight(Long id, Flight flightDetails) {
@@ -84,41 +178,157 @@ public class FlightService {
             flight.setTotalSeats(flightDetails.getTotalSeats());
             flight.setPrice(flightDetails.getPrice());
             flight.setStatus(flightDetails.getStatus());
-            return flightRepository.save(flight);
+            Flight updatedFlight = flightRepository.save(flight);
+            eventPublisher.publishEvent(FlightChangedEvent.saved(updatedFlight));
+            return updatedFlight;
         }
         throw new RuntimeException("Flight not found with id: " + id);
     }
     
+    public Optional<Flight> updateFlightStatus(Long id, FlightStatus status) {
+        Optional<Flight> optionalFlight = flightRepository.findById(id);
+        optionalFlight.ifPresent(flight -> {
+            flight.setStatus(status);
+            eventPublisher.publishEvent(FlightChangedEvent.saved(flight));
+        });
+        return optionalFlight;
+    }
+    
+    // One UPDATE for the whole batch; BOARDING and DEPARTED are checked against departureTime and
+    // ARRIVED against arrivalTime. The moved flights are re-read in one query for the listeners.
+    public int advanceStatus(Collection<Long> ids, Set<FlightStatus> from, FlightStatus to, LocalDateTime cutoff) {
+        int updated = to == FlightStatus.ARRIVED
+                ? flightRepository.advanceStatusByArrival(ids, from, to, cutoff)
+                : flightRepository.advanceStatusByDeparture(ids, from, to, cutoff);
+        if (updated > 0) {
+            for (Flight flight : flightRepository.findAllById(ids)) {
+                if (flight.getStatus() == to) {
+                    eventPublisher.publishEvent(FlightChangedEvent.saved(flight));
+                }
+            }
+        }
+        return updated;
+    }
+    
+    // Sets only the fields present in the patch; with @DynamicUpdate the UPDATE carries just those columns
+    public Optional<Flight> patchFlight(Long id, FlightPatch patch) {
+        if (patch.price() != null && patch.price().signum() <= 0) {
+            throw new IllegalArgumentException("Price must be positive");
+        }
+        if (patch.aircraftType() != null && patch.aircraftType().isBlank()) {
+            throw new IllegalArgumentException("Aircraft type is required");
+        }
+        Optional<Flight> optionalFlight = flightRepository.findById(id);
+        optionalFlight.ifPresent(flight -> {
+            if (patch.status() != null) {
+                flight.setStatus(patch.status());
+            }
+            if (patch.departureTime() != null) {
+                flight.setDepartureTime(patch.departureTime());
+            }
+            if (patch.arrivalTime() != null) {
+                flight.setArrivalTime(patch.arrivalTime());
+            }
+            if (patch.price() != null) {
+                flight.setPrice(patch.price());
+            }
+            if (patch.aircraftType() != null) {
+                flight.setAircraftType(patch.aircraftType());
+            }
+            if (!flight.getArrivalTime().isAfter(flight.getDepartureTime())) {
+                throw new IllegalArgumentException("Arrival must be after departure");
+            }
+            eventPublisher.publishEvent(FlightChangedEvent.saved(flight));
+        });
+        return optionalFlight;
+    }
+    
+    // One set-based UPDATE for all ids, then one read of the changed flights so caches and
+    // indexes get a SAVED event per flight, as for single updates
+    public BulkPatchResult patchFlights(BulkFlightPatch patch) {
+        long minutes = patch.shiftMinutes() == null ? 0 : patch.shiftMinutes();
+        int updated;
+        if (minutes == 0) {
+            updated = flightRepository.updateStatus(patch.ids(), patch.status());
+        } else if (patch.status() == null) {
+            updated = flightRepository.shiftTimes(patch.ids(), minutes);
+        } else {
+            updated = flightRepository.shiftTimesAndUpdateStatus(patch.ids(), minutes, patch.status());
+        }
+        if (updated > 0) {
+            for (Flight flight : flightRepository.findAllById(patch.ids())) {
+                eventPublisher.publishEvent(FlightChangedEvent.saved(flight));
+            }
+        }
+        return new BulkPatchResult(patch.ids().size(), updated);
+    }
+    
     public void deleteFlight(Long id) {
         flightRepository.deleteById(id);
+        eventPublisher.publishEvent(FlightChangedEvent.deleted(id));
     }
     
     public boolean reserveSeats(Long flightId, Integer numberOfSeats) {
-        Optional<Flight> optionalFlight = flightRepository.findById(flightId);
-        if (optionalFlight.isPresent()) {
-            Flight flight = optionalFlight.get();
-            if (flight.getAvailableSeats() >= numberOfSeats) {
-                flight.setAvailableSeats(flight.getAvailableSeats() - numberOfSeats);
-                flightRepository.save(flight);
-                return true;
-            }
+        // In-memory counters when the inventory is on, otherwise one conditional UPDATE;
+        // either way a miss means the flight is missing or would be oversold
+        long started = System.nanoTime();
+        boolean reserved;
+        SeatCount seats = null;
+        if (seatInventory.isReady()) {
+            reserved = seatInventory.reserve(flightId, numberOfSeats);
+        } else {
+            seats = updated(flightId, flightRepository.reserveSeats(flightId, numberOfSeats));
+            reserved = seats != null;
         }
-        return false;
+        flightMetrics.reserveSeats().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        flightMetrics.seatsRequested(flightId, numberOfSeats, reserved);
+        if (!reserved) {
+            return false;
+        }
+        eventPublisher.publishEvent(FlightChangedEvent.seatsChanged(flightId, -numberOfSeats, seats));
+        return true;
     }
     
     public void releaseSeats(Long flightId, Integer numberOfSeats) {
-        Optional<Flight> optionalFlight = flightRepository.findById(flightId);
-        if (optionalFlight.isPresent()) {
-            Flight flight = optionalFlight.get();
-            int newAvailableSeats = flight.getAvailableSeats() + numberOfSeats;
-            if (newAvailableSeats <= flight.getTotalSeats()) {
-                flight.setAvailableSeats(newAvailableSeats);
-                flightRepository.save(flight);
-            }
+        boolean released;
+        SeatCount seats = null;
+        if (seatInventory.isReady()) {
+            released = seatInventory.release(flightId, numberOfSeats);
+        } else {
+            seats = updated(flightId, flightRepository.releaseSeats(flightId, numberOfSeats));
+            released = seats != null;
         }
+        if (released) {
+            eventPublisher.publishEvent(FlightChangedEvent.seatsChanged(flightId, numberOfSeats, seats));
+        }
+    }
+    
+    // The bulk UPDATE bypasses the persistence context. Rather than clearing it, which would detach
+    // every entity the caller holds, a Flight this transaction already loaded is re-read. The UPDATE
+    // keeps the row locked until commit, so the count read here is exactly the one that commits.
+    private SeatCount updated(Long flightId, int rows) {
+        if (rows == 0) {
+            return null;
+        }
+        Flight flight = entityManager.getReference(Flight.class, flightId);
+        if (Hibernate.isInitialized(flight)) {
+            entityManager.refresh(flight);
+            return new SeatCount(flight.getAvailableSeats(), flight.getSeatVersion());
+        }
+        return flightRepository.findSeatCount(flightId);
     }
     
+    @Transactional(readOnly = true)
     public boolean flightExists(String flightNumber) {
         return flightRepository.existsByFlightNumber(flightNumber);
     }
+    
+    // Null fields are left as they are
+    public record FlightPatch(FlightStatus status, LocalDateTime departureTime, LocalDateTime arrivalTime,
+                              BigDecimal price, String aircraftType) {}
+    
+    // Sets status and/or moves departure and arrival by shiftMinutes on every listed flight
+    public record BulkFlightPatch(List<Long> ids, FlightStatus status, Integer shiftMinutes) {}
+    
+    public record BulkPatchResult(int requested, int updated) {}
 }
@@ -0,0 +1,194 @@
+package com.shubham.FlightManagementSystem.stream;
+
+import com.shubham.FlightManagementSystem.event.FlightChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// In-process pub/sub behind GET /api/flights/stream. Committed flight changes are queued in O(1)
+// on the committing thread; one dispatcher fans them out into every subscriber's buffer, which
+// coalesces per flight, and each subscriber is written by its own virtual thread. A slow client
+// only makes its own buffer coalesce more; one that falls too far behind is told to resync.
+@Component
+public class FlightEventHub {
+    
+    private static final Logger log = LoggerFactory.getLogger(FlightEventHub.class);
+    
+    @Value("${flight.stream.buffer-flights:1000}")
+    private int bufferFlights;
+    
+    private final BlockingQueue<FlightUpdate> incoming = new LinkedBlockingQueue<>();
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    
+    private Thread dispatcher;
+    
+    @PostConstruct
+    void start() {
+        dispatcher = Thread.ofPlatform().name("flight-event-dispatcher").daemon().start(this::dispatch);
+    }
+    
+    @PreDestroy
+    void stop() {
+        dispatcher.interrupt();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        writers.shutdown();
+    }
+    
+    // flightIds limits the stream to those flights; null or empty means every flight
+    public SseEmitter subscribe(Set<Long> flightIds) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, flightIds == null || flightIds.isEmpty() ? null : Set.copyOf(flightIds));
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        return emitter;
+    }
+    
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+    
+    @TransactionalEventListener
+    public void onFlightChanged(FlightChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        incoming.offer(switch (event.type()) {
+            case SAVED -> new FlightUpdate(event.flightId(), event.snapshot().getAvailableSeats(), 0,
+                    event.snapshot().getStatus(), false);
+            case SEATS -> new FlightUpdate(event.flightId(), null, event.seatDelta(), null, false);
+            case DELETED -> new FlightUpdate(event.flightId(), null, 0, null, true);
+        });
+    }
+    
+    // Keeps idle connections alive through proxies and finds clients that went away
+    @Scheduled(fixedRateString = "${flight.stream.heartbeat-ms:30000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            schedule(subscriber);
+        }
+    }
+    
+    private void dispatch() {
+        List<FlightUpdate> batch = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(incoming.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            incoming.drainTo(batch);
+            Map<Long, FlightUpdate> coalesced = new LinkedHashMap<>();
+            for (FlightUpdate update : batch) {
+                coalesced.merge(update.flightId(), update, FlightUpdate::merge);
+            }
+            batch.clear();
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.offer(coalesced.values(), bufferFlights)) {
+                    schedule(subscriber);
+                }
+            }
+        }
+    }
+    
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.writing.compareAndSet(false, true)) {
+            writers.execute(() -> write(subscriber));
+        }
+    }
+    
+    private void write(Subscriber subscriber) {
+        try {
+            while (true) {
+                if (subscriber.overflowed) {
+                    subscriber.overflowed = false;
+                    subscriber.emitter.send(SseEmitter.event().name("resync").data(""));
+                }
+                List<FlightUpdate> updates = subscriber.drain();
+                for (FlightUpdate update : updates) {
+                    subscriber.emitter.send(SseEmitter.event().name("flight").data(update, MediaType.APPLICATION_JSON));
+                }
+                if (subscriber.heartbeatDue) {
+                    subscriber.heartbeatDue = false;
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+                subscriber.writing.set(false);
+                // Anything offered after the drain re-arms the writer, unless another one already has
+                if (!subscriber.hasWork() || !subscriber.writing.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            log.debug("Dropped flight stream subscriber: {}", e.getMessage());
+        }
+    }
+    
+    private static final class Subscriber {
+        
+        private final SseEmitter emitter;
+        private final Set<Long> flightIds;
+        private final Map<Long, FlightUpdate> pending = new LinkedHashMap<>();
+        private final AtomicBoolean writing = new AtomicBoolean();
+        private volatile boolean overflowed;
+        private volatile boolean heartbeatDue;
+        
+        private Subscriber(SseEmitter emitter, Set<Long> flightIds) {
+            this.emitter = emitter;
+            this.flightIds = flightIds;
+        }
+        
+        // Returns whether anything was buffered
+        private synchronized boolean offer(Iterable<FlightUpdate> updates, int maxFlights) {
+            boolean buffered = false;
+            for (FlightUpdate update : updates) {
+                if (flightIds != null && !flightIds.contains(update.flightId())) {
+                    continue;
+                }
+                pending.merge(update.flightId(), update, FlightUpdate::merge);
+                buffered = true;
+            }
+            if (pending.size() > maxFlights) {
+                pending.clear();
+                overflowed = true;
+            }
+            return buffered || overflowed;
+        }
+        
+        private synchronized List<FlightUpdate> drain() {
+            List<FlightUpdate> updates = new ArrayList<>(pending.values());
+            pending.clear();
+            return updates;
+        }
+        
+        private synchronized boolean hasWork() {
+            return !pending.isEmpty() || overflowed || heartbeatDue;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.shubham.FlightManagementSystem.stream;
+
+import com.shubham.FlightManagementSystem.entity.Flight.FlightStatus;
+
+// What /api/flights/stream sends for one flight. availableSeats is set when the whole flight was
+// saved; seatDelta is to be added on top of it (or of the client's own count when it is null).
+public record FlightUpdate(Long flightId, Integer availableSeats, int seatDelta, FlightStatus status, boolean deleted) {
+    
+    // Folds a later update into this one, so a slow subscriber receives one update per flight
+    FlightUpdate merge(FlightUpdate later) {
+        if (later.deleted || later.availableSeats != null) {
+            return later;
+        }
+        return new FlightUpdate(flightId, availableSeats, seatDelta + later.seatDelta,
+                later.status != null ? later.status : status, deleted);
+    }
+}
@@ -0,0 +1,105 @@
+package com.shubham.FlightManagementSystem.web;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// With virtual threads there is no request-thread limit left to protect the database, so API
+// requests take one of as many permits as the Hikari pool has connections (open-in-view holds a
+// connection for the whole request). Waiting here is a parked virtual thread rather than a
+// thread spinning in the pool; requests that wait too long get 503. Streamed (NDJSON) bodies
+// give their permit back when the handler returns, before the body is written.
+@Component
+public class ConnectionPermitFilter extends OncePerRequestFilter {
+    
+    private static final Logger log = LoggerFactory.getLogger(ConnectionPermitFilter.class);
+    
+    // Hikari's own default, for pools that leave the size unset
+    private static final int DEFAULT_POOL_SIZE = 10;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Value("${flight.db-permits.enabled:${spring.threads.virtual.enabled:false}}")
+    private boolean enabled;
+    
+    // 0 uses the Hikari maximum pool size
+    @Value("${flight.db-permits.permits:0}")
+    private int permits;
+    
+    @Value("${flight.db-permits.acquire-timeout:PT10S}")
+    private Duration acquireTimeout;
+    
+    private Semaphore semaphore;
+    
+    // Tomcat runs @PostConstruct on filter instances too, and rejects it when it declares checked
+    // exceptions, so SQLException is wrapped and a second call leaves the semaphore alone
+    @PostConstruct
+    void init() {
+        if (!enabled || semaphore != null) {
+            return;
+        }
+        if (permits <= 0) {
+            try {
+                // An unset size reads as -1 until the pool starts
+                int poolSize = dataSource.isWrapperFor(HikariDataSource.class)
+                        ? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()
+                        : -1;
+                permits = poolSize > 0 ? poolSize : DEFAULT_POOL_SIZE;
+            } catch (SQLException e) {
+                throw new IllegalStateException("Cannot read the connection pool size", e);
+            }
+        }
+        semaphore = new Semaphore(permits, true);
+        log.info("Limiting concurrent API requests to {} database permits", permits);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return semaphore == null || !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            semaphore.release();
+        }
+    }
+    
+    public int availablePermits() {
+        return semaphore == null ? -1 : semaphore.availablePermits();
+    }
+}
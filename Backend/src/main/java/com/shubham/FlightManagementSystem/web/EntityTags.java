@@ -0,0 +1,47 @@
+package com.shubham.FlightManagementSystem.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Comparator;
+import java.util.List;
+
+// Validators for the conditional list endpoints. Weak, because Tomcat will not gzip a body carrying a
+// strong ETag, and one per representation, because the JSON, CBOR and Smile bodies of one version differ.
+public final class EntityTags {
+    
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    
+    // In the order the message converters are registered, so */* resolves to JSON as it does for the body
+    private static final List<MediaType> REPRESENTATIONS =
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+    
+    private EntityTags() {}
+    
+    public static String weak(String version, MediaType representation) {
+        return "W/\"" + version + "-" + representation.getSubtype() + "\"";
+    }
+    
+    // The representation content negotiation will pick for this Accept header, decided before the body
+    // is loaded; an unparseable header falls back to JSON and is rejected later by the converters
+    public static MediaType representationOf(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        return accepted.stream()
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .filter(type -> type.getQualityValue() > 0)
+                .flatMap(type -> REPRESENTATIONS.stream().filter(type::includes))
+                .findFirst()
+                .orElse(MediaType.APPLICATION_JSON);
+    }
+}
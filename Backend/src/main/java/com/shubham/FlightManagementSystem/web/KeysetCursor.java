@@ -0,0 +1,75 @@
+package com.shubham.FlightManagementSystem.web;
+
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+// Opaque "next" tokens for keyset pagination; a page is the rows strictly after the encoded key
+public final class KeysetCursor {
+    
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    public static final int MAX_PAGE_SIZE = 1000;
+    
+    private KeysetCursor() {}
+    
+    public static String ofId(Long id) {
+        return encode(String.valueOf(id));
+    }
+    
+    public static String ofDepartureTime(LocalDateTime departureTime, Long id) {
+        return encode(departureTime + "|" + id);
+    }
+    
+    // First page starts after id 0
+    public static Long idOf(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.valueOf(decode(cursor));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+    
+    // Null for the first page
+    public static TimeKey departureTimeOf(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] parts = decode(cursor).split("\\|");
+        try {
+            return new TimeKey(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+    
+    public static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+    
+    // A short page is the last one, so no token is sent
+    public static <T> ResponseEntity<List<T>> page(List<T> items, int pageSize, Function<T, String> cursorOf) {
+        if (items.size() < pageSize) {
+            return ResponseEntity.ok(items);
+        }
+        String next = cursorOf.apply(items.get(items.size() - 1));
+        return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, next).body(items);
+    }
+    
+    private static String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String decode(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+    
+    public record TimeKey(LocalDateTime departureTime, Long id) {}
+}
@@ -0,0 +1,28 @@
+-- Runs after Hibernate has created or updated the tables (spring.jpa.defer-datasource-initialization)
+
+-- Booking search: trigram GIN indexes serve LIKE '%term%' and similarity ranking,
+-- unaccent makes passenger names accent-insensitive
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() is only STABLE, so index expressions go through an IMMUTABLE wrapper
+CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+    AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_passenger_name_trgm
+    ON bookings USING gin (f_unaccent(lower(passenger_name)) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_bookings_email_trgm
+    ON bookings USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_bookings_reference_trgm
+    ON bookings USING gin (lower(booking_reference) gin_trgm_ops);
+
+-- Live seat holds, loaded by HoldExpirer on startup
+CREATE INDEX IF NOT EXISTS idx_bookings_pending_holds
+    ON bookings (hold_expires_at) WHERE status = 'PENDING';
+
+-- Booking and flight ids moved from IDENTITY to pooled sequences; start them past the existing rows
+SELECT setval('bookings_seq', (SELECT COALESCE(MAX(id), 0) + 100 FROM bookings))
+    WHERE (SELECT last_value FROM bookings_seq) <= (SELECT COALESCE(MAX(id), 0) FROM bookings);
+SELECT setval('flights_seq', (SELECT COALESCE(MAX(id), 0) + 100 FROM flights))
+    WHERE (SELECT last_value FROM flights_seq) <= (SELECT COALESCE(MAX(id), 0) FROM flights);
@@ -0,0 +1,129 @@
+package com.shubham.FlightManagementSystem.controller;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import com.shubham.FlightManagementSystem.service.AirportService;
+import com.shubham.FlightManagementSystem.service.FlightService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Unchanged reference lists come back as 304 without touching the database; writes change the tag
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private AirportService airportService;
+
+	@Autowired
+	private FlightService flightService;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	private final List<Airport> airports = new ArrayList<>();
+
+	@BeforeEach
+	void seed() {
+		airports.add(airportService.saveAirport(new Airport("SIN", "Changi", "Singapore", "Singapore")));
+		airports.add(airportService.saveAirport(new Airport("KUL", "Kuala Lumpur International", "Kuala Lumpur", "Malaysia")));
+		LocalDateTime departure = LocalDateTime.now().plusDays(4).withNano(0);
+		flightService.saveFlight(new Flight("CG10", airports.get(0), airports.get(1), departure,
+				departure.plusHours(1), "A330", 250, new BigDecimal("110.00")));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		flightRepository.deleteAll();
+		airports.forEach(airport -> airportService.deleteAirport(airport.getId()));
+		airports.clear();
+	}
+
+	@Test
+	void unchangedAvailableFlightsAreNotModified() throws Exception {
+		String etag = mockMvc.perform(get("/api/flights/available"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		mockMvc.perform(get("/api/flights/available").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+	}
+
+	@Test
+	void seatChangeInvalidatesAvailableFlights() throws Exception {
+		String etag = mockMvc.perform(get("/api/flights/available"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		Flight flight = flightService.getFlightByNumber("CG10").orElseThrow();
+
+		flightService.reserveSeats(flight.getId(), 2);
+
+		mockMvc.perform(get("/api/flights/available").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+	}
+
+	@Test
+	void eachRepresentationHasItsOwnWeakTag() throws Exception {
+		String json = mockMvc.perform(get("/api/flights/available").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		String cbor = mockMvc.perform(get("/api/flights/available").accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		assertThat(json).startsWith("W/\"");
+		assertThat(cbor).startsWith("W/\"").isNotEqualTo(json);
+		// A cached JSON body must not be revalidated for a CBOR request
+		mockMvc.perform(get("/api/flights/available").accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, json))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/flights/available").accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, cbor))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void airportWriteInvalidatesAirportList() throws Exception {
+		String etag = mockMvc.perform(get("/api/airports"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(get("/api/airports").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		airports.add(airportService.saveAirport(new Airport("BKK", "Suvarnabhumi", "Bangkok", "Thailand")));
+
+		mockMvc.perform(get("/api/airports").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+	}
+}
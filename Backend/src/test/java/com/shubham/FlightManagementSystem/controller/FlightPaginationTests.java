@@ -0,0 +1,162 @@
+package com.shubham.FlightManagementSystem.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import com.shubham.FlightManagementSystem.service.AirportService;
+import com.shubham.FlightManagementSystem.web.KeysetCursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Keyset pages of /api/flights follow X-Next-Cursor to the end without gaps or repeats, and the
+// NDJSON export carries the same rows one per line
+@SpringBootTest
+@AutoConfigureMockMvc
+class FlightPaginationTests {
+
+	// More than one streaming batch, in groups of four flights sharing a departure time
+	private static final int FLIGHTS = 520;
+
+	private static final int PAGE_SIZE = 50;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private AirportService airportService;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	private final List<Airport> airports = new ArrayList<>();
+
+	private List<Flight> flights;
+
+	@BeforeEach
+	void seed() {
+		airports.add(airportService.saveAirport(new Airport("LIS", "Humberto Delgado", "Lisbon", "Portugal")));
+		airports.add(airportService.saveAirport(new Airport("OPO", "Francisco Sa Carneiro", "Porto", "Portugal")));
+		LocalDateTime base = LocalDateTime.now().plusDays(3).withNano(0);
+		List<Flight> seeded = new ArrayList<>();
+		for (int i = 0; i < FLIGHTS; i++) {
+			// Departure order differs from id order
+			LocalDateTime departure = base.plusHours(i * 7L % (FLIGHTS / 4));
+			seeded.add(new Flight("TP" + (1000 + i), airports.get(0), airports.get(1), departure,
+					departure.plusHours(1), "A320", 174, new BigDecimal("49.00")));
+		}
+		flights = flightRepository.saveAll(seeded);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		flightRepository.deleteAllInBatch();
+		airports.forEach(airport -> airportService.deleteAirport(airport.getId()));
+		airports.clear();
+	}
+
+	@Test
+	void idCursorsVisitEveryFlightOnce() throws Exception {
+		List<Long> expected = flights.stream().map(Flight::getId).sorted().toList();
+
+		assertThat(walk("id")).isEqualTo(expected);
+	}
+
+	@Test
+	void departureTimePagesSplitSharedTimesByIdWithoutGapsOrRepeats() throws Exception {
+		List<Long> expected = flights.stream()
+				.sorted(Comparator.comparing(Flight::getDepartureTime).thenComparing(Flight::getId))
+				.map(Flight::getId).toList();
+
+		assertThat(walk("departureTime")).isEqualTo(expected);
+	}
+
+	@Test
+	void tamperedOrForeignCursorsAreRejected() throws Exception {
+		Flight flight = flights.get(0);
+		String timeCursor = KeysetCursor.ofDepartureTime(flight.getDepartureTime(), flight.getId());
+		String forged = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString("tomorrow|1".getBytes(StandardCharsets.UTF_8));
+
+		for (String cursor : List.of("not a cursor!", timeCursor.substring(1), forged)) {
+			mockMvc.perform(get("/api/flights").param("limit", "10").param("sort", "departureTime").param("cursor", cursor))
+					.andExpect(status().isBadRequest());
+		}
+		// A cursor from one sort order is meaningless in the other
+		mockMvc.perform(get("/api/flights").param("limit", "10").param("cursor", timeCursor))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/flights").param("limit", "10").param("sort", "departureTime")
+						.param("cursor", KeysetCursor.ofId(flight.getId())))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void ndjsonExportFramesEveryRowOnItsOwnLine() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/flights").accept(MediaType.APPLICATION_NDJSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(body).endsWith("\n");
+		List<Long> streamed = new ArrayList<>();
+		for (String line : body.split("\n")) {
+			JsonNode row = objectMapper.readTree(line);
+			assertThat(row.isObject()).isTrue();
+			streamed.add(row.get("id").asLong());
+		}
+		assertThat(streamed).isEqualTo(walk("id"));
+	}
+
+	// Follows X-Next-Cursor from the first page until a page comes back without one
+	private List<Long> walk(String sort) throws Exception {
+		List<Long> ids = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			var request = get("/api/flights").param("limit", String.valueOf(PAGE_SIZE)).param("sort", sort);
+			if (cursor != null) {
+				request.param("cursor", cursor);
+			}
+			MockHttpServletResponse response = mockMvc.perform(request)
+					.andExpect(status().isOk())
+					.andReturn().getResponse();
+			JsonNode page = objectMapper.readTree(response.getContentAsString());
+			assertThat(page.size()).isLessThanOrEqualTo(PAGE_SIZE);
+			page.forEach(row -> ids.add(row.get("id").asLong()));
+			cursor = response.getHeader(KeysetCursor.NEXT_CURSOR_HEADER);
+			pages++;
+		} while (cursor != null);
+		assertThat(pages).isEqualTo(FLIGHTS / PAGE_SIZE + 1);
+		return ids;
+	}
+}
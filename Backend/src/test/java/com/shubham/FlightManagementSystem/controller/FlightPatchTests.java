@@ -0,0 +1,125 @@
+package com.shubham.FlightManagementSystem.controller;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.entity.Flight.FlightStatus;
+import com.shubham.FlightManagementSystem.index.FlightSearchIndex;
+import com.shubham.FlightManagementSystem.service.AirportService;
+import com.shubham.FlightManagementSystem.service.FlightService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Bulk patches are one UPDATE plus one read whatever the number of flights, and the search index follows them
+@SpringBootTest(properties = "flight.search-index.enabled=true")
+@AutoConfigureMockMvc
+class FlightPatchTests {
+
+	private static final int FLIGHTS = 300;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private AirportService airportService;
+
+	@Autowired
+	private FlightService flightService;
+
+	@Autowired
+	private FlightSearchIndex flightSearchIndex;
+
+	private final List<Airport> airports = new ArrayList<>();
+
+	private final List<Flight> flights = new ArrayList<>();
+
+	private LocalDateTime departure;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void seed() {
+		airports.add(airportService.saveAirport(new Airport("ORD", "O'Hare International", "Chicago", "USA")));
+		airports.add(airportService.saveAirport(new Airport("DEN", "Denver International", "Denver", "USA")));
+		departure = LocalDateTime.now().plusDays(3).withNano(0);
+		for (int i = 0; i < FLIGHTS; i++) {
+			flights.add(flightService.saveFlight(new Flight("PT" + i, new Airport("ORD", null, null, null),
+					new Airport("DEN", null, null, null), departure.plusMinutes(i), departure.plusMinutes(i + 150),
+					"B737", 160, new BigDecimal("130.00"))));
+		}
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		flights.forEach(flight -> flightService.deleteFlight(flight.getId()));
+		flights.clear();
+		airports.forEach(airport -> airportService.deleteAirport(airport.getId()));
+		airports.clear();
+	}
+
+	@Test
+	void bulkPatchDelaysEveryFlightInOneStatement() throws Exception {
+		String ids = flights.stream().map(flight -> flight.getId().toString()).collect(Collectors.joining(","));
+
+		mockMvc.perform(patch("/api/flights").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\":[" + ids + "],\"status\":\"DELAYED\",\"shiftMinutes\":45}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.updated").value(FLIGHTS));
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		List<Flight> indexed = flightSearchIndex.search("ORD", "DEN", departure, 1);
+		assertThat(indexed).hasSize(FLIGHTS).allMatch(flight -> flight.getStatus() == FlightStatus.DELAYED);
+		assertThat(indexed.get(0).getDepartureTime()).isEqualTo(departure.plusMinutes(45));
+		assertThat(flightService.getFlightById(flights.get(7).getId()).orElseThrow().getArrivalTime())
+				.isEqualTo(departure.plusMinutes(7 + 150 + 45));
+	}
+
+	@Test
+	void patchWritesOnlyTheChangedFlight() throws Exception {
+		Flight flight = flights.get(0);
+
+		mockMvc.perform(patch("/api/flights/" + flight.getId()).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"status\":\"BOARDING\"}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("BOARDING"))
+				.andExpect(jsonPath("$.price").value(130.0));
+
+		assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(flightSearchIndex.search("ORD", "DEN", departure, 1).get(0).getStatus()).isEqualTo(FlightStatus.BOARDING);
+	}
+
+	@Test
+	void patchRejectsInvalidValues() throws Exception {
+		mockMvc.perform(patch("/api/flights/" + flights.get(0).getId()).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"arrivalTime\":\"" + departure.minusHours(1) + "\"}"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(patch("/api/flights").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\":[" + flights.get(0).getId() + "]}"))
+				.andExpect(status().isBadRequest());
+	}
+}
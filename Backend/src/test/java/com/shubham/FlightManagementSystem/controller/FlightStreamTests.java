@@ -0,0 +1,87 @@
+package com.shubham.FlightManagementSystem.controller;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.entity.Flight.FlightStatus;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import com.shubham.FlightManagementSystem.service.AirportService;
+import com.shubham.FlightManagementSystem.service.FlightService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+// Committed seat and status changes reach open /api/flights/stream connections
+@SpringBootTest
+@AutoConfigureMockMvc
+class FlightStreamTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private AirportService airportService;
+
+	@Autowired
+	private FlightService flightService;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	private final List<Airport> airports = new ArrayList<>();
+
+	private Flight flight;
+
+	@BeforeEach
+	void seed() {
+		airports.add(airportService.saveAirport(new Airport("ATH", "Athens International", "Athens", "Greece")));
+		airports.add(airportService.saveAirport(new Airport("IST", "Istanbul Airport", "Istanbul", "Turkey")));
+		LocalDateTime departure = LocalDateTime.now().plusDays(6).withNano(0);
+		flight = flightService.saveFlight(new Flight("ST50", airports.get(0), airports.get(1), departure,
+				departure.plusHours(2), "A321", 180, new BigDecimal("90.00")));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		flightRepository.deleteAll();
+		airports.forEach(airport -> airportService.deleteAirport(airport.getId()));
+		airports.clear();
+	}
+
+	@Test
+	void subscribersReceiveSeatAndStatusChanges() throws Exception {
+		MockHttpServletResponse response = mockMvc.perform(get("/api/flights/stream").param("flightIds", flight.getId().toString()))
+				.andExpect(request().asyncStarted())
+				.andReturn().getResponse();
+
+		flightService.reserveSeats(flight.getId(), 3);
+		flightService.updateFlightStatus(flight.getId(), FlightStatus.DELAYED);
+
+		String body = awaitContent(response, "DELAYED");
+		assertThat(body).contains("event:flight").contains("\"flightId\":" + flight.getId());
+		assertThat(body).containsAnyOf("\"seatDelta\":-3", "\"availableSeats\":177");
+	}
+
+	private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+		long deadline = System.currentTimeMillis() + 5000;
+		String body = response.getContentAsString();
+		while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			body = response.getContentAsString();
+		}
+		return body;
+	}
+}
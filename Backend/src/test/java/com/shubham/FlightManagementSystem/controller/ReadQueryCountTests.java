@@ -0,0 +1,131 @@
+package com.shubham.FlightManagementSystem.controller;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Booking;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.repository.AirportRepository;
+import com.shubham.FlightManagementSystem.repository.BookingRepository;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Every list endpoint must serialize its rows without lazy-loading airports or flights
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReadQueryCountTests {
+
+	private static final int FLIGHTS = 20;
+
+	private static final int BOOKINGS_PER_FLIGHT = 3;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private AirportRepository airportRepository;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	private Statistics statistics;
+
+	private Flight firstFlight;
+
+	@BeforeEach
+	void seed() {
+		Airport[] airports = {
+				airportRepository.save(new Airport("JFK", "John F. Kennedy International", "New York", "USA")),
+				airportRepository.save(new Airport("LHR", "Heathrow", "London", "UK")),
+				airportRepository.save(new Airport("CDG", "Charles de Gaulle", "Paris", "France"))
+		};
+		LocalDateTime departure = LocalDateTime.now().plusDays(1).withNano(0);
+		for (int i = 0; i < FLIGHTS; i++) {
+			Flight flight = flightRepository.save(new Flight("QC" + (100 + i), airports[i % 3], airports[(i + 1) % 3],
+					departure.plusHours(i), departure.plusHours(i + 7), "A320", 180, new BigDecimal("250.00")));
+			if (firstFlight == null) {
+				firstFlight = flight;
+			}
+			for (int b = 0; b < BOOKINGS_PER_FLIGHT; b++) {
+				bookingRepository.save(new Booking("BKQC" + i + "X" + b, flight, "Passenger " + i + "-" + b,
+						"p" + i + "-" + b + "@example.com", "+100000000" + b, 1, new BigDecimal("250.00")));
+			}
+		}
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		bookingRepository.deleteAll();
+		flightRepository.deleteAll();
+		airportRepository.deleteAll();
+		firstFlight = null;
+	}
+
+	@Test
+	void allFlightsTakeOneStatement() throws Exception {
+		assertStatements("/api/flights", 1);
+	}
+
+	@Test
+	void availableFlightsTakeOneStatement() throws Exception {
+		assertStatements("/api/flights/available", 1);
+	}
+
+	@Test
+	void flightsByDepartureAirportTakeOneStatement() throws Exception {
+		assertStatements("/api/flights/departure/JFK", 1);
+	}
+
+	@Test
+	void flightSearchTakesOneStatement() throws Exception {
+		assertStatements("/api/flights/search?departureCode=JFK&arrivalCode=LHR&departureDate="
+				+ LocalDateTime.now().withNano(0), 1);
+	}
+
+	@Test
+	void allBookingsTakeOneStatement() throws Exception {
+		assertStatements("/api/bookings", 1);
+	}
+
+	@Test
+	void bookingsByFlightTakeOneStatement() throws Exception {
+		assertStatements("/api/bookings/flight/" + firstFlight.getId(), 1);
+	}
+
+	@Test
+	void upcomingBookingsTakeOneStatement() throws Exception {
+		assertStatements("/api/bookings/upcoming", 1);
+	}
+
+	@Test
+	void pagedFlightsTakeOneStatement() throws Exception {
+		assertStatements("/api/flights?limit=5", 1);
+	}
+
+	private void assertStatements(String uri, long expected) throws Exception {
+		mockMvc.perform(get(uri)).andExpect(status().isOk());
+		assertThat(statistics.getPrepareStatementCount()).as(uri).isEqualTo(expected);
+	}
+}
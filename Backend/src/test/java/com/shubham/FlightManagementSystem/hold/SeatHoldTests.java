@@ -0,0 +1,233 @@
+package com.shubham.FlightManagementSystem.hold;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Booking;
+import com.shubham.FlightManagementSystem.entity.Booking.BookingStatus;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.repository.AirportRepository;
+import com.shubham.FlightManagementSystem.repository.BookingRepository;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import com.shubham.FlightManagementSystem.service.BookingService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A hold takes its seats at once and either becomes a booking or gives them back exactly once.
+// Expiry is driven by moving holdExpiresAt into the past and calling expireHolds directly; the
+// application's own expirer only has these holds at the default ten minute TTL.
+@SpringBootTest
+@AutoConfigureMockMvc
+class SeatHoldTests {
+
+	private static final int TOTAL_SEATS = 10;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private AirportRepository airportRepository;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	private Flight flight;
+
+	@BeforeEach
+	void seed() {
+		Airport departure = airportRepository.save(new Airport("LIS", "Humberto Delgado", "Lisbon", "Portugal"));
+		Airport arrival = airportRepository.save(new Airport("OPO", "Francisco Sa Carneiro", "Porto", "Portugal"));
+		LocalDateTime departureTime = LocalDateTime.now().plusDays(6).withNano(0);
+		flight = flightRepository.save(new Flight("TP900", departure, arrival, departureTime,
+				departureTime.plusHours(1), "E195", TOTAL_SEATS, new BigDecimal("70.00")));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		bookingRepository.deleteAll();
+		flightRepository.deleteAll();
+		airportRepository.deleteAll();
+	}
+
+	@Test
+	void holdThenConfirmOverHttp() throws Exception {
+		String body = mockMvc.perform(post("/api/bookings/hold").contentType(MediaType.APPLICATION_JSON).content(request(3)))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.status").value("PENDING"))
+				.andExpect(jsonPath("$.holdExpiresAt").exists())
+				.andReturn().getResponse().getContentAsString();
+		long id = ((Number) JsonPath.read(body, "$.id")).longValue();
+		assertThat(availableSeats()).isEqualTo(TOTAL_SEATS - 3);
+
+		mockMvc.perform(put("/api/bookings/{id}/confirm", id))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("CONFIRMED"));
+		mockMvc.perform(put("/api/bookings/{id}/confirm", id))
+				.andExpect(status().isConflict());
+		mockMvc.perform(put("/api/bookings/{id}/confirm", Long.MAX_VALUE))
+				.andExpect(status().isNotFound());
+
+		bookingService.expireHolds(List.of(id));
+		assertThat(availableSeats()).isEqualTo(TOTAL_SEATS - 3);
+	}
+
+	@Test
+	void expiredHoldCannotBeConfirmed() throws Exception {
+		Booking hold = bookingService.holdBooking(booking(2));
+		expireAt(hold, LocalDateTime.now().minusSeconds(1));
+
+		// Past its expiry the hold is dead even before the expirer has run
+		mockMvc.perform(put("/api/bookings/{id}/confirm", hold.getId()))
+				.andExpect(status().isConflict());
+	}
+
+	@Test
+	void expiryCancelsTheHoldAndReturnsItsSeatsOnce() {
+		Booking hold = bookingService.holdBooking(booking(4));
+		Booking live = bookingService.holdBooking(booking(1));
+		expireAt(hold, LocalDateTime.now().minusSeconds(1));
+		assertThat(availableSeats()).isEqualTo(TOTAL_SEATS - 5);
+
+		assertThat(bookingService.expireHolds(List.of(hold.getId(), live.getId()))).isEqualTo(1);
+		assertThat(bookingService.expireHolds(List.of(hold.getId()))).isZero();
+		bookingService.cancelBooking(hold.getId());
+
+		assertThat(statusOf(hold)).isEqualTo(BookingStatus.CANCELLED);
+		assertThat(statusOf(live)).isEqualTo(BookingStatus.PENDING);
+		assertThat(availableSeats()).isEqualTo(TOTAL_SEATS - 1);
+	}
+
+	@Test
+	void confirmRacingExpiryHasOneWinner() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			for (int round = 0; round < 20; round++) {
+				Booking hold = bookingService.holdBooking(booking(1));
+				LocalDateTime expiresAt = LocalDateTime.now().plusNanos(20_000_000);
+				expireAt(hold, expiresAt);
+				CountDownLatch start = new CountDownLatch(1);
+				Future<Boolean> confirmed = pool.submit(() -> {
+					start.await();
+					return bookingService.confirmHold(hold.getId()).isPresent();
+				});
+				Future<Integer> expired = pool.submit(() -> {
+					start.await();
+					while (LocalDateTime.now().isBefore(expiresAt)) {
+						Thread.onSpinWait();
+					}
+					return bookingService.expireHolds(List.of(hold.getId()));
+				});
+				Thread.sleep(15);
+				start.countDown();
+
+				boolean won = confirmed.get();
+				assertThat(expired.get()).isEqualTo(won ? 0 : 1);
+				assertThat(statusOf(hold)).isEqualTo(won ? BookingStatus.CONFIRMED : BookingStatus.CANCELLED);
+				bookingService.deleteBooking(hold.getId());
+				assertThat(availableSeats()).isEqualTo(TOTAL_SEATS);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void restartRestoresHoldsFromTheTable() throws Exception {
+		Booking hold = bookingService.holdBooking(booking(2));
+		expireAt(hold, LocalDateTime.now().plusNanos(200_000_000));
+
+		HoldExpirer restarted = new HoldExpirer();
+		ReflectionTestUtils.setField(restarted, "bookingRepository", bookingRepository);
+		ReflectionTestUtils.setField(restarted, "bookingService", bookingService);
+		ReflectionTestUtils.setField(restarted, "tickMs", 100L);
+		ReflectionTestUtils.setField(restarted, "batchSize", 500);
+		ReflectionTestUtils.setField(restarted, "retryDelayMs", 5000L);
+		restarted.init();
+		restarted.start();
+		try {
+			assertThat(restarted.activeHolds()).isEqualTo(1);
+			long deadline = System.currentTimeMillis() + 5000;
+			while (statusOf(hold) != BookingStatus.CANCELLED && System.currentTimeMillis() < deadline) {
+				Thread.sleep(50);
+			}
+			assertThat(statusOf(hold)).isEqualTo(BookingStatus.CANCELLED);
+			assertThat(restarted.activeHolds()).isZero();
+			assertThat(availableSeats()).isEqualTo(TOTAL_SEATS);
+		} finally {
+			restarted.stop();
+		}
+	}
+
+	@Test
+	void cancellingOrDeletingAHoldReturnsItsSeats() {
+		Booking cancelled = bookingService.holdBooking(booking(3));
+		Booking deleted = bookingService.holdBooking(booking(2));
+		assertThat(availableSeats()).isEqualTo(TOTAL_SEATS - 5);
+
+		bookingService.cancelBooking(cancelled.getId());
+		bookingService.deleteBooking(deleted.getId());
+
+		assertThat(statusOf(cancelled)).isEqualTo(BookingStatus.CANCELLED);
+		assertThat(bookingRepository.findById(deleted.getId())).isEmpty();
+		assertThat(availableSeats()).isEqualTo(TOTAL_SEATS);
+	}
+
+	private void expireAt(Booking hold, LocalDateTime expiresAt) {
+		Booking stored = bookingRepository.findById(hold.getId()).orElseThrow();
+		stored.setHoldExpiresAt(expiresAt);
+		bookingRepository.save(stored);
+	}
+
+	private BookingStatus statusOf(Booking booking) {
+		return bookingRepository.findById(booking.getId()).orElseThrow().getStatus();
+	}
+
+	private int availableSeats() {
+		return flightRepository.findById(flight.getId()).orElseThrow().getAvailableSeats();
+	}
+
+	private String request(int seats) {
+		return "{\"bookingReference\":\"PENDING\",\"flight\":{\"id\":" + flight.getId() + ",\"price\":70.00},"
+				+ "\"passengerName\":\"Hold Passenger\",\"email\":\"hold@example.com\",\"phoneNumber\":\"+351000000\","
+				+ "\"numberOfSeats\":" + seats + "}";
+	}
+
+	private Booking booking(int seats) {
+		Flight reference = new Flight();
+		reference.setId(flight.getId());
+		reference.setPrice(flight.getPrice());
+		Booking booking = new Booking();
+		booking.setFlight(reference);
+		booking.setPassengerName("Hold Passenger");
+		booking.setEmail("hold@example.com");
+		booking.setPhoneNumber("+351000000");
+		booking.setNumberOfSeats(seats);
+		return booking;
+	}
+}
@@ -0,0 +1,54 @@
+package com.shubham.FlightManagementSystem.hold;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Every hold fires exactly once, on the first tick at or after its deadline, on whichever level it started
+class TimingWheelTests {
+
+	@Test
+	void holdsFireOnTheirTickAcrossLevels() {
+		long start = 1_700_000_000_000L;
+		TimingWheel wheel = new TimingWheel(10, 4, 4, start);
+		Random random = new Random(42);
+		Map<Long, Long> deadlines = new HashMap<>();
+		for (long id = 0; id < 20_000; id++) {
+			// Up to twice the wheel's span, so some holds go round the top level again
+			long deadline = start + 1 + (long) (random.nextDouble() * 2 * 10 * 65_536);
+			deadlines.put(id, deadline);
+			wheel.add(id, deadline);
+		}
+		assertThat(wheel.size()).isEqualTo(20_000);
+
+		Map<Long, Long> firedAt = new HashMap<>();
+		for (long now = start; firedAt.size() < deadlines.size(); now += 1 + random.nextInt(40)) {
+			long at = now;
+			wheel.advance(now, id -> assertThat(firedAt.put(id, at)).isNull());
+		}
+		deadlines.forEach((id, deadline) -> {
+			assertThat(firedAt.get(id)).isGreaterThanOrEqualTo(deadline).isLessThan(deadline + 50);
+		});
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void overdueHoldsFireOnTheNextAdvance() {
+		TimingWheel wheel = new TimingWheel(100, 8, 4, 10_000);
+		wheel.add(1, 5_000);
+		wheel.add(2, 10_250);
+		List<Long> fired = new ArrayList<>();
+		wheel.advance(10_100, fired::add);
+		assertThat(fired).containsExactly(1L);
+		wheel.advance(10_299, fired::add);
+		assertThat(fired).containsExactly(1L);
+		wheel.advance(10_300, fired::add);
+		assertThat(fired).containsExactly(1L, 2L);
+	}
+}
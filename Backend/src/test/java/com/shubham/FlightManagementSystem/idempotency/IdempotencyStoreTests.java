@@ -0,0 +1,140 @@
+package com.shubham.FlightManagementSystem.idempotency;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Booking;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.repository.AirportRepository;
+import com.shubham.FlightManagementSystem.repository.BookingRepository;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import com.shubham.FlightManagementSystem.repository.IdempotencyRecordRepository;
+import com.shubham.FlightManagementSystem.service.BookingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Retries with one Idempotency-Key book once, however many arrive at the same time
+@SpringBootTest
+class IdempotencyStoreTests {
+
+	@Autowired
+	private IdempotencyStore idempotencyStore;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private AirportRepository airportRepository;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private IdempotencyRecordRepository idempotencyRecordRepository;
+
+	private Flight flight;
+
+	@BeforeEach
+	void seed() {
+		Airport departure = airportRepository.save(new Airport("GOI", "Manohar International", "Goa", "India"));
+		Airport arrival = airportRepository.save(new Airport("PNQ", "Pune International", "Pune", "India"));
+		LocalDateTime departureTime = LocalDateTime.now().plusDays(5).withNano(0);
+		flight = flightRepository.save(new Flight("ID300", departure, arrival, departureTime,
+				departureTime.plusHours(1), "A320", 100, new BigDecimal("45.00")));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		idempotencyRecordRepository.deleteAll();
+		bookingRepository.deleteAll();
+		flightRepository.deleteAll();
+		airportRepository.deleteAll();
+	}
+
+	@Test
+	void concurrentRetriesShareOneBooking() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Booking>> results = new ArrayList<>();
+		for (int i = 0; i < 16; i++) {
+			results.add(pool.submit(() -> {
+				start.await();
+				return create("retry-key", 2);
+			}));
+		}
+		start.countDown();
+		List<Long> ids = new ArrayList<>();
+		for (Future<Booking> result : results) {
+			ids.add(result.get().getId());
+		}
+		pool.shutdown();
+
+		assertThat(ids).containsOnly(ids.get(0));
+		assertThat(bookingRepository.count()).isEqualTo(1);
+		assertThat(flightRepository.findById(flight.getId()).orElseThrow().getAvailableSeats()).isEqualTo(98);
+		assertThat(idempotencyRecordRepository.findById("retry-key")).isPresent();
+	}
+
+	@Test
+	void keyCannotBeReusedForAnotherRequest() {
+		create("reused-key", 1);
+
+		assertThatThrownBy(() -> create("reused-key", 3)).isInstanceOf(IdempotencyKeyReuseException.class);
+		assertThat(bookingRepository.count()).isEqualTo(1);
+	}
+
+	@Test
+	void keyCommittedByAnotherNodeReturnsItsBooking() {
+		Booking request = request(2);
+		String fingerprint = idempotencyStore.fingerprintOf(request);
+		LocalDateTime expiresAt = LocalDateTime.now().plus(idempotencyStore.getTtl());
+
+		// Neither node has seen the key when they look it up; the other node commits first
+		Booking[] otherNode = new Booking[1];
+		Booking booking = idempotencyStore.execute("shared-key", fingerprint, () -> {
+			otherNode[0] = bookingService.createBooking(request(2), "shared-key", fingerprint, expiresAt);
+			return bookingService.createBooking(request, "shared-key", fingerprint, expiresAt);
+		});
+
+		assertThat(booking.getId()).isEqualTo(otherNode[0].getId());
+		assertThat(bookingRepository.count()).isEqualTo(1);
+		assertThat(flightRepository.findById(flight.getId()).orElseThrow().getAvailableSeats()).isEqualTo(98);
+	}
+
+	private Booking create(String key, int seats) {
+		Booking booking = request(seats);
+		String fingerprint = idempotencyStore.fingerprintOf(booking);
+		LocalDateTime expiresAt = LocalDateTime.now().plus(idempotencyStore.getTtl());
+		return idempotencyStore.execute(key, fingerprint,
+				() -> bookingService.createBooking(booking, key, fingerprint, expiresAt));
+	}
+
+	private Booking request(int seats) {
+		Flight reference = new Flight();
+		reference.setId(flight.getId());
+		reference.setPrice(flight.getPrice());
+		Booking booking = new Booking();
+		booking.setFlight(reference);
+		booking.setPassengerName("Retry Passenger");
+		booking.setEmail("retry@example.com");
+		booking.setPhoneNumber("+910000000");
+		booking.setNumberOfSeats(seats);
+		return booking;
+	}
+}
@@ -0,0 +1,77 @@
+package com.shubham.FlightManagementSystem.index;
+
+import com.shubham.FlightManagementSystem.cache.AirportCache;
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.event.AirportChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Suggestions rank an exact code over word prefixes over substrings, ignoring case and accents
+class AirportSuggestIndexTests {
+
+	private final Airport berlin = airport(1L, "BER", "Brandenburg", "Berlin", "Germany");
+
+	private final Airport bergen = airport(2L, "BGO", "Flesland", "Bergen", "Norway");
+
+	private final Airport bern = airport(3L, "BRN", "Belp", "Bern", "Switzerland");
+
+	private final Airport aberdeen = airport(4L, "ABZ", "Dyce", "Aberdeen", "United Kingdom");
+
+	private final Airport zurich = airport(5L, "ZRH", "Zürich Kloten", "Zürich", "Switzerland");
+
+	private final Airport saoPaulo = airport(6L, "GRU", "Guarulhos", "São Paulo", "Brazil");
+
+	private AirportSuggestIndex index;
+
+	@BeforeEach
+	void build() {
+		AirportCache airportCache = mock(AirportCache.class);
+		when(airportCache.getAll()).thenReturn(List.of(berlin, bergen, bern, aberdeen, zurich, saoPaulo));
+		index = new AirportSuggestIndex();
+		ReflectionTestUtils.setField(index, "airportCache", airportCache);
+		index.rebuild();
+	}
+
+	@Test
+	void exactCodeRanksOverPrefixesOverSubstrings() {
+		assertThat(index.suggest("ber", 10)).containsExactly(berlin, bern, bergen, aberdeen);
+		assertThat(index.suggest("ber", 2)).containsExactly(berlin, bern);
+		// Substrings need a trigram, so two letters only match prefixes
+		assertThat(index.suggest("de", 10)).isEmpty();
+		assertThat(index.suggest("  ", 10)).isEmpty();
+	}
+
+	@Test
+	void caseAndAccentsAreIgnored() {
+		assertThat(index.suggest("ZUR", 10)).containsExactly(zurich);
+		assertThat(index.suggest("zür", 10)).containsExactly(zurich);
+		assertThat(index.suggest("Sao Pa", 10)).containsExactly(saoPaulo);
+		assertThat(index.suggest("ULO", 10)).containsExactly(saoPaulo);
+		assertThat(index.suggest("grU", 10)).containsExactly(saoPaulo);
+	}
+
+	@Test
+	void savedAndDeletedAirportsAreReflected() {
+		index.onAirportChanged(AirportChangedEvent.saved(airport(3L, "BRN", "Belp", "Berne", "Switzerland")));
+		index.onAirportChanged(AirportChangedEvent.saved(airport(7L, "CGN", "Konrad Adenauer", "Köln", "Germany")));
+		index.onAirportChanged(AirportChangedEvent.deleted(2L));
+
+		assertThat(index.suggest("koln", 10)).extracting(Airport::getCode).containsExactly("CGN");
+		assertThat(index.suggest("berne", 10)).extracting(Airport::getCode).containsExactly("BRN");
+		assertThat(index.suggest("bergen", 10)).isEmpty();
+		assertThat(index.suggest("ber", 10)).extracting(Airport::getCode).containsExactly("BER", "BRN", "ABZ");
+	}
+
+	private static Airport airport(Long id, String code, String name, String city, String country) {
+		Airport airport = new Airport(code, name, city, country);
+		airport.setId(id);
+		return airport;
+	}
+}
@@ -0,0 +1,143 @@
+package com.shubham.FlightManagementSystem.index;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.entity.Flight.FlightStatus;
+import com.shubham.FlightManagementSystem.event.FlightChangedEvent;
+import com.shubham.FlightManagementSystem.event.SeatCount;
+import com.shubham.FlightManagementSystem.index.FlightSearchIndex.ConsistencyReport;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// The index answers searches the way FlightRepository.searchFlights does and follows committed changes
+class FlightSearchIndexTests {
+
+	private final LocalDateTime departure = LocalDateTime.now().plusDays(4).withNano(0);
+
+	private final Airport hnd = airport(1L, "HND", "Haneda");
+
+	private final Airport itm = airport(2L, "ITM", "Itami");
+
+	private FlightRepository flightRepository;
+
+	private FlightSearchIndex index;
+
+	@BeforeEach
+	void build() {
+		flightRepository = mock(FlightRepository.class);
+		when(flightRepository.findAllWithAirports()).thenReturn(List.of(
+				flight(1L, "SI1", 40, 5), flight(2L, "SI2", 2, 3), flight(3L, "SI3", 40, 1), flight(4L, "SI4", 40, -2)));
+		index = new FlightSearchIndex();
+		ReflectionTestUtils.setField(index, "flightRepository", flightRepository);
+		ReflectionTestUtils.setField(index, "enabled", true);
+		index.warmUp();
+		assertThat(index.isReady()).isTrue();
+	}
+
+	@Test
+	void searchReturnsLaterFlightsWithEnoughSeatsInDepartureOrder() {
+		assertThat(index.search("HND", "ITM", departure, 1))
+				.extracting(Flight::getFlightNumber).containsExactly("SI3", "SI2", "SI1");
+		assertThat(index.search("HND", "ITM", departure, 3))
+				.extracting(Flight::getFlightNumber).containsExactly("SI3", "SI1");
+		assertThat(index.search("HND", "ITM", departure.plusHours(4), 1))
+				.extracting(Flight::getFlightNumber).containsExactly("SI1");
+		assertThat(index.search("ITM", "HND", departure, 1)).isEmpty();
+	}
+
+	@Test
+	void savesDeletesAndSeatChangesAreApplied() {
+		Flight moved = flight(3L, "SI3", 40, 6);
+		moved.setDepartureAirport(itm);
+		moved.setArrivalAirport(hnd);
+		index.onFlightChanged(FlightChangedEvent.saved(moved));
+		index.onFlightChanged(FlightChangedEvent.deleted(1L));
+		index.onFlightChanged(FlightChangedEvent.seatsChanged(2L, 3, new SeatCount(5, 1)));
+
+		assertThat(index.search("HND", "ITM", departure, 1))
+				.extracting(Flight::getFlightNumber).containsExactly("SI2");
+		assertThat(index.search("HND", "ITM", departure, 5)).singleElement()
+				.extracting(Flight::getAvailableSeats).isEqualTo(5);
+		assertThat(index.search("ITM", "HND", departure, 1))
+				.extracting(Flight::getFlightNumber).containsExactly("SI3");
+	}
+
+	@Test
+	void seatCountsApplyOnceWhateverTheirOrder() {
+		index.onFlightChanged(FlightChangedEvent.seatsChanged(3L, -4, new SeatCount(36, 2)));
+		index.onFlightChanged(FlightChangedEvent.seatsChanged(3L, -2, new SeatCount(38, 1)));
+		// A snapshot read before the last seat change must not take it back
+		Flight delayed = flight(3L, "SI3", 38, 1);
+		delayed.setSeatVersion(1);
+		delayed.setStatus(FlightStatus.DELAYED);
+		index.onFlightChanged(FlightChangedEvent.saved(delayed));
+
+		Flight current = index.search("HND", "ITM", departure.plusHours(1), 1).get(0);
+		assertThat(current.getAvailableSeats()).isEqualTo(36);
+		assertThat(current.getStatus()).isEqualTo(FlightStatus.DELAYED);
+
+		// A rebuild that already read the last change, which then arrives after it
+		when(flightRepository.findAllWithAirports()).thenReturn(List.of(seatsAt(flight(3L, "SI3", 34, 1), 3)));
+		index.rebuild();
+		index.onFlightChanged(FlightChangedEvent.seatsChanged(3L, -2, new SeatCount(34, 3)));
+
+		assertThat(index.search("HND", "ITM", departure, 1)).singleElement()
+				.extracting(Flight::getAvailableSeats).isEqualTo(34);
+	}
+
+	@Test
+	void consistencyCheckRepairsFromTheTable() {
+		Flight retimed = flight(1L, "SI1", 40, 7);
+		when(flightRepository.findAllWithAirports()).thenReturn(List.of(
+				retimed, seatsAt(flight(2L, "SI2", 1, 3), 1), flight(3L, "SI3", 40, 1), flight(5L, "SI5", 40, 2)));
+
+		ConsistencyReport report = index.checkConsistency(false);
+		assertThat(report).isEqualTo(new ConsistencyReport(4, 1, 2, 1, false));
+		assertThat(index.search("HND", "ITM", departure, 1)).hasSize(3);
+
+		report = index.checkConsistency(true);
+		assertThat(report.repaired()).isTrue();
+		assertThat(index.search("HND", "ITM", departure, 1))
+				.extracting(Flight::getFlightNumber).containsExactly("SI3", "SI5", "SI2", "SI1");
+		assertThat(index.checkConsistency(true)).isEqualTo(new ConsistencyReport(4, 0, 0, 0, false));
+	}
+
+	@Test
+	void seatsNewerThanTheTableAreNotStale() {
+		index.onFlightChanged(FlightChangedEvent.seatsChanged(3L, -1, new SeatCount(39, 1)));
+
+		// The change committed after the check read the table
+		assertThat(index.checkConsistency(true)).isEqualTo(new ConsistencyReport(4, 0, 0, 0, false));
+		assertThat(index.search("HND", "ITM", departure, 40)).extracting(Flight::getFlightNumber).containsExactly("SI1");
+	}
+
+	private static Flight seatsAt(Flight flight, long version) {
+		flight.setSeatVersion(version);
+		return flight;
+	}
+
+	private Flight flight(Long id, String number, int seats, int hoursAfter) {
+		Flight flight = new Flight(number, hnd, itm, departure.plusHours(hoursAfter), departure.plusHours(hoursAfter + 1),
+				"A350", 300, new BigDecimal("110.00"));
+		flight.setId(id);
+		flight.setAvailableSeats(seats);
+		flight.setStatus(FlightStatus.SCHEDULED);
+		return flight;
+	}
+
+	private static Airport airport(Long id, String code, String name) {
+		Airport airport = new Airport(code, name, "Tokyo", "Japan");
+		airport.setId(id);
+		return airport;
+	}
+}
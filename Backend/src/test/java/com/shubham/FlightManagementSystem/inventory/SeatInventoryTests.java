@@ -0,0 +1,155 @@
+package com.shubham.FlightManagementSystem.inventory;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Booking;
+import com.shubham.FlightManagementSystem.entity.Booking.BookingStatus;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.repository.AirportRepository;
+import com.shubham.FlightManagementSystem.repository.BookingRepository;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import com.shubham.FlightManagementSystem.service.BookingService;
+import com.shubham.FlightManagementSystem.service.FlightService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Counters answer at once and the flights table catches up on flush. The flush interval is long
+// enough that only the tests flush, so the lag between the two is observable.
+@SpringBootTest(properties = {
+		"flight.inventory.enabled=true",
+		"flight.inventory.flush-interval-ms=600000"
+})
+class SeatInventoryTests {
+
+	private static final int TOTAL_SEATS = 5;
+
+	@Autowired
+	private SeatInventory seatInventory;
+
+	@Autowired
+	private FlightService flightService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private AirportRepository airportRepository;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Flight flight;
+
+	@BeforeEach
+	void seed() {
+		Airport departure = airportRepository.save(new Airport("VIE", "Schwechat", "Vienna", "Austria"));
+		Airport arrival = airportRepository.save(new Airport("ZRH", "Kloten", "Zurich", "Switzerland"));
+		LocalDateTime departureTime = LocalDateTime.now().plusDays(9).withNano(0);
+		flight = flightRepository.save(new Flight("OS560", departure, arrival, departureTime,
+				departureTime.plusHours(1), "A320", TOTAL_SEATS, new BigDecimal("120.00")));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		seatInventory.flush();
+		bookingRepository.deleteAll();
+		flightRepository.deleteAll();
+		airportRepository.deleteAll();
+	}
+
+	@Test
+	void rolledBackReservationReturnsItsSeats() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			assertThat(flightService.reserveSeats(flight.getId(), 3)).isTrue();
+			assertThat(seatInventory.availableSeats(flight.getId())).isEqualTo(TOTAL_SEATS - 3);
+			status.setRollbackOnly();
+		});
+
+		assertThat(seatInventory.availableSeats(flight.getId())).isEqualTo(TOTAL_SEATS);
+		assertThat(seatInventory.flush()).isZero();
+		assertThat(storedSeats()).isEqualTo(TOTAL_SEATS);
+	}
+
+	@Test
+	void committedChangesReachTheTableOnFlush() {
+		Booking booking = bookingService.createBooking(booking(2));
+		bookingService.createBooking(booking(1));
+		bookingService.cancelBooking(booking.getId());
+
+		assertThat(seatInventory.availableSeats(flight.getId())).isEqualTo(TOTAL_SEATS - 1);
+		assertThat(storedSeats()).isEqualTo(TOTAL_SEATS);
+
+		// Three changes to one flight go out as one row
+		assertThat(seatInventory.flush()).isEqualTo(1);
+		assertThat(storedSeats()).isEqualTo(TOTAL_SEATS - 1);
+		assertThat(seatInventory.flush()).isZero();
+	}
+
+	@Test
+	void startupRecomputesSeatsFromBookings() {
+		bookingService.createBooking(booking(2));
+		seatInventory.flush();
+		// A crash before the last flush leaves the table behind the bookings
+		jdbcTemplate.update("UPDATE flights SET available_seats = ? WHERE id = ?", TOTAL_SEATS, flight.getId());
+
+		SeatInventory restarted = new SeatInventory();
+		ReflectionTestUtils.setField(restarted, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(restarted, "enabled", true);
+		ReflectionTestUtils.setField(restarted, "flushIntervalMs", 600000L);
+		restarted.start();
+		try {
+			assertThat(storedSeats()).isEqualTo(TOTAL_SEATS - 2);
+			assertThat(restarted.reserve(flight.getId(), TOTAL_SEATS - 1)).isFalse();
+			assertThat(restarted.availableSeats(flight.getId())).isEqualTo(TOTAL_SEATS - 2);
+		} finally {
+			restarted.stop();
+		}
+	}
+
+	@Test
+	void bookingOnAFullFlightCanShrink() {
+		Booking booking = bookingService.createBooking(booking(TOTAL_SEATS));
+		Booking smaller = booking(4);
+		smaller.setStatus(BookingStatus.CONFIRMED);
+
+		bookingService.updateBooking(booking.getId(), smaller);
+
+		assertThat(seatInventory.availableSeats(flight.getId())).isEqualTo(1);
+		seatInventory.flush();
+		assertThat(storedSeats()).isEqualTo(1);
+	}
+
+	private int storedSeats() {
+		return jdbcTemplate.queryForObject("SELECT available_seats FROM flights WHERE id = ?", Integer.class, flight.getId());
+	}
+
+	private Booking booking(int seats) {
+		Booking booking = new Booking();
+		booking.setFlight(flight);
+		booking.setPassengerName("Inventory Passenger");
+		booking.setEmail("inventory@example.com");
+		booking.setPhoneNumber("+430000000");
+		booking.setNumberOfSeats(seats);
+		return booking;
+	}
+}
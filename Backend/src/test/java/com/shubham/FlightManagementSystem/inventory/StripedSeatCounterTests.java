@@ -0,0 +1,57 @@
+package com.shubham.FlightManagementSystem.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Striped counters must sell exactly the seats they hold, however the requests land on stripes
+class StripedSeatCounterTests {
+
+	@Test
+	void concurrentReservationsNeverOversell() throws Exception {
+		StripedSeatCounter counter = new StripedSeatCounter(150, 150, 8);
+		AtomicInteger sold = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(32);
+		for (int i = 0; i < 4000; i++) {
+			int seats = 1 + i % 3;
+			pool.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				if (counter.reserve(seats)) {
+					sold.addAndGet(seats);
+				}
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+		assertThat(sold.get() + counter.available()).isEqualTo(150);
+		assertThat(counter.available()).isLessThan(3);
+	}
+
+	@Test
+	void reservationLargerThanAnyStripeRebalances() {
+		StripedSeatCounter counter = new StripedSeatCounter(10, 10, 8);
+		assertThat(counter.reserve(9)).isTrue();
+		assertThat(counter.reserve(2)).isFalse();
+		assertThat(counter.available()).isEqualTo(1);
+	}
+
+	@Test
+	void releaseNeverExceedsTotalSeats() {
+		StripedSeatCounter counter = new StripedSeatCounter(8, 10, 4);
+		assertThat(counter.release(2)).isTrue();
+		assertThat(counter.release(1)).isFalse();
+		assertThat(counter.available()).isEqualTo(10);
+	}
+}
@@ -0,0 +1,115 @@
+package com.shubham.FlightManagementSystem.journal;
+
+import com.shubham.FlightManagementSystem.entity.Booking.BookingStatus;
+import com.shubham.FlightManagementSystem.journal.JournalEvent.Type;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Appends survive a restart, roll over into new segments and fold back into the same state
+class BookingJournalTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void concurrentAppendsReplayAfterRestartAcrossSegments() throws Exception {
+		BookingJournal journal = open();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		for (int t = 0; t < 8; t++) {
+			long flightId = t % 2 + 1;
+			pool.execute(() -> {
+				for (int i = 0; i < 500; i++) {
+					journal.record(Type.SEATS_RESERVED, (long) i, flightId, 2);
+				}
+			});
+		}
+		pool.shutdown();
+		assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+		journal.record(Type.BOOKING_CREATED, 7L, 1L, 0);
+		journal.record(Type.BOOKING_CANCELLED, 8L, 2L, 0);
+		journal.record(Type.SEATS_RELEASED, 8L, 2L, 2);
+		journal.close();
+
+		try (Stream<Path> segments = Files.list(directory)) {
+			assertThat(segments.count()).isGreaterThan(1);
+		}
+
+		BookingJournal reopened = open();
+		JournalState state = reopened.getRecoveredState();
+		assertThat(state.getEvents()).isEqualTo(4003);
+		assertThat(state.getLastSequence()).isEqualTo(4003);
+		assertThat(state.reservedSeats(1L)).isEqualTo(4000);
+		assertThat(state.reservedSeats(2L)).isEqualTo(3998);
+		assertThat(state.bookingStatus(7L)).isEqualTo(BookingStatus.CONFIRMED);
+		assertThat(state.bookingStatus(8L)).isEqualTo(BookingStatus.CANCELLED);
+
+		// New appends continue the sequence after the recovered end
+		assertThat(reopened.append(Type.SEATS_RESERVED, 9L, 1L, 1)).isEqualTo(4004);
+		reopened.close();
+	}
+
+	@Test
+	void replayStopsAtPointInTime() throws Exception {
+		BookingJournal journal = open();
+		journal.record(Type.SEATS_RESERVED, 1L, 1L, 3);
+		long cutoff = System.currentTimeMillis();
+		Thread.sleep(5);
+		journal.record(Type.SEATS_RESERVED, 2L, 1L, 4);
+
+		List<JournalEvent> events = new ArrayList<>();
+		journal.replay(cutoff, events::add);
+		assertThat(events).extracting(JournalEvent::bookingId).containsExactly(1L);
+		assertThat(journal.replay(Long.MAX_VALUE).reservedSeats(1L)).isEqualTo(7);
+		journal.close();
+	}
+
+	@Test
+	void auditReportsFlightsWhereTheTableAndJournalDiffer() throws Exception {
+		BookingJournal journal = open();
+		journal.record(Type.SEATS_RESERVED, 1L, 1L, 3);
+		journal.record(Type.SEATS_RESERVED, 2L, 2L, 2);
+		journal.record(Type.SEATS_RESERVED, 3L, 4L, 1);
+		journal.close();
+		BookingJournal reopened = open();
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		// Flight 2 lost an append in a crash; flight 3 is unknown to the journal; flight 4 is not in the table
+		when(jdbcTemplate.queryForList(anyString())).thenReturn(List.of(
+				Map.of("flight_id", 1L, "seats", 3L), Map.of("flight_id", 2L, "seats", 5L), Map.of("flight_id", 3L, "seats", 1L)));
+		JournalAudit audit = new JournalAudit();
+		ReflectionTestUtils.setField(audit, "journal", reopened);
+		ReflectionTestUtils.setField(audit, "jdbcTemplate", jdbcTemplate);
+
+		assertThat(audit.drift()).containsExactly(entry(2L, 3), entry(3L, 1), entry(4L, -1));
+		reopened.close();
+	}
+
+	private BookingJournal open() throws Exception {
+		BookingJournal journal = new BookingJournal();
+		ReflectionTestUtils.setField(journal, "enabled", true);
+		ReflectionTestUtils.setField(journal, "directory", directory);
+		// Room for 1000 records, so the first test rolls over four times
+		ReflectionTestUtils.setField(journal, "segmentBytes", 1000 * JournalEvent.SIZE);
+		ReflectionTestUtils.setField(journal, "sync", true);
+		ReflectionTestUtils.setField(journal, "maxCommitDelayMs", 2L);
+		journal.open();
+		return journal;
+	}
+}
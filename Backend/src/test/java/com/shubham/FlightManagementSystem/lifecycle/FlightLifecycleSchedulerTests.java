@@ -0,0 +1,117 @@
+package com.shubham.FlightManagementSystem.lifecycle;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.entity.Flight.FlightStatus;
+import com.shubham.FlightManagementSystem.event.FlightChangedEvent;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import com.shubham.FlightManagementSystem.service.FlightService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Due transitions go out as one batch per target status, and a change of times re-plans the flight
+class FlightLifecycleSchedulerTests {
+
+	private final LocalDateTime now = LocalDateTime.now();
+
+	private final FlightRepository flightRepository = mock(FlightRepository.class);
+
+	private final FlightService flightService = mock(FlightService.class);
+
+	private FlightLifecycleScheduler scheduler;
+
+	@BeforeEach
+	void start() {
+		when(flightRepository.findLifecycleTimes(anyCollection())).thenReturn(List.of(
+				new FlightTimes(1L, FlightStatus.SCHEDULED, now.plusMinutes(10), now.plusHours(2)),
+				new FlightTimes(2L, FlightStatus.DELAYED, now.plusMinutes(20), now.plusHours(2)),
+				new FlightTimes(3L, FlightStatus.BOARDING, now.minusMinutes(1), now.plusHours(1)),
+				new FlightTimes(4L, FlightStatus.SCHEDULED, now.minusHours(3), now.minusHours(1)),
+				new FlightTimes(5L, FlightStatus.SCHEDULED, now.plusDays(1), now.plusDays(1).plusHours(2))));
+		when(flightService.advanceStatus(anyCollection(), anySet(), any(), any()))
+				.thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+		scheduler = new FlightLifecycleScheduler();
+		ReflectionTestUtils.setField(scheduler, "flightRepository", flightRepository);
+		ReflectionTestUtils.setField(scheduler, "flightService", flightService);
+		ReflectionTestUtils.setField(scheduler, "enabled", true);
+		ReflectionTestUtils.setField(scheduler, "boardingLead", Duration.ofMinutes(30));
+		ReflectionTestUtils.setField(scheduler, "batchSize", 500);
+		ReflectionTestUtils.setField(scheduler, "retryDelayMs", 5000L);
+		scheduler.warmUp();
+	}
+
+	@Test
+	void dueFlightsMoveInOneStatementPerStatus() {
+		// The DELAYED flight is held until it is given new times
+		assertThat(scheduler.plannedTransitions()).isEqualTo(4);
+
+		assertThat(scheduler.applyDue()).isEqualTo(3);
+
+		verify(flightService).advanceStatus(eq(List.of(1L)),
+				eq(Set.of(FlightStatus.SCHEDULED)), eq(FlightStatus.BOARDING), any());
+		verify(flightService).advanceStatus(eq(List.of(3L)),
+				eq(Set.of(FlightStatus.SCHEDULED, FlightStatus.BOARDING)), eq(FlightStatus.DEPARTED), any());
+		// Long overdue flights skip straight to ARRIVED
+		verify(flightService).advanceStatus(eq(List.of(4L)),
+				eq(Set.of(FlightStatus.SCHEDULED, FlightStatus.BOARDING, FlightStatus.DEPARTED)),
+				eq(FlightStatus.ARRIVED), any());
+		assertThat(scheduler.plannedTransitions()).isEqualTo(1);
+	}
+
+	@Test
+	void delayedFlightWaitsForNewTimes() {
+		// Saved again with the times it was delayed at, e.g. a price change
+		Flight unchanged = flight(2L, FlightStatus.DELAYED, now.plusMinutes(20));
+		unchanged.setArrivalTime(now.plusHours(2));
+		scheduler.onFlightChanged(FlightChangedEvent.saved(unchanged));
+		assertThat(scheduler.plannedTransitions()).isEqualTo(4);
+
+		scheduler.onFlightChanged(FlightChangedEvent.saved(flight(2L, FlightStatus.DELAYED, now.plusMinutes(25))));
+		scheduler.applyDue();
+
+		verify(flightService).advanceStatus(eq(List.of(2L)),
+				eq(Set.of(FlightStatus.SCHEDULED, FlightStatus.DELAYED)), eq(FlightStatus.BOARDING), any());
+		verify(flightService).advanceStatus(eq(List.of(1L)),
+				eq(Set.of(FlightStatus.SCHEDULED)), eq(FlightStatus.BOARDING), any());
+	}
+
+	@Test
+	void updatedTimesReplanTheFlight() {
+		scheduler.onFlightChanged(FlightChangedEvent.saved(flight(1L, FlightStatus.SCHEDULED, now.plusHours(5))));
+		scheduler.onFlightChanged(FlightChangedEvent.saved(flight(5L, FlightStatus.SCHEDULED, now.plusMinutes(5))));
+		scheduler.onFlightChanged(FlightChangedEvent.saved(flight(2L, FlightStatus.CANCELLED, now.plusMinutes(20))));
+
+		scheduler.applyDue();
+
+		verify(flightService).advanceStatus(eq(List.of(5L)), anySet(), eq(FlightStatus.BOARDING), any());
+		verify(flightService, never()).advanceStatus(argThat(ids -> ids.contains(1L) || ids.contains(2L)),
+				anySet(), any(), any());
+	}
+
+	private static Flight flight(Long id, FlightStatus status, LocalDateTime departure) {
+		Airport from = new Airport("LHR", "Heathrow", "London", "United Kingdom");
+		Airport to = new Airport("DUB", "Dublin", "Dublin", "Ireland");
+		Flight flight = new Flight("LC" + id, from, to, departure, departure.plusHours(1), "A320", 180, new BigDecimal("90.00"));
+		flight.setId(id);
+		flight.setStatus(status);
+		return flight;
+	}
+}
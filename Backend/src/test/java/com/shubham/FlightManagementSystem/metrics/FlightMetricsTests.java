@@ -0,0 +1,102 @@
+package com.shubham.FlightManagementSystem.metrics;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Booking;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import com.shubham.FlightManagementSystem.service.AirportService;
+import com.shubham.FlightManagementSystem.service.BookingService;
+import com.shubham.FlightManagementSystem.service.FlightService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Requests report their statement count and refused bookings show up in the counters and timers
+@SpringBootTest
+@AutoConfigureMockMvc
+class FlightMetricsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private AirportService airportService;
+
+	@Autowired
+	private FlightService flightService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	private final List<Airport> airports = new ArrayList<>();
+
+	private Flight flight;
+
+	@BeforeEach
+	void seed() {
+		airports.add(airportService.saveAirport(new Airport("OSL", "Gardermoen", "Oslo", "Norway")));
+		airports.add(airportService.saveAirport(new Airport("BGO", "Flesland", "Bergen", "Norway")));
+		LocalDateTime departure = LocalDateTime.now().plusDays(2).withNano(0);
+		flight = flightService.saveFlight(new Flight("MT1", airports.get(0), airports.get(1), departure,
+				departure.plusHours(1), "E190", 2, new BigDecimal("70.00")));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		flightRepository.deleteAll();
+		airports.forEach(airport -> airportService.deleteAirport(airport.getId()));
+		airports.clear();
+	}
+
+	@Test
+	void requestsRecordTheirStatementCount() throws Exception {
+		DistributionSummary before = registry.find("http.server.requests.queries").tag("uri", "/api/flights/{id}").summary();
+		long requests = before == null ? 0 : before.count();
+		double statements = before == null ? 0 : before.totalAmount();
+
+		mockMvc.perform(get("/api/flights/{id}", flight.getId())).andExpect(status().isOk());
+
+		DistributionSummary queries = registry.get("http.server.requests.queries")
+				.tag("uri", "/api/flights/{id}")
+				.summary();
+		assertThat(queries.count()).isEqualTo(requests + 1);
+		// The flight and both airports come back in one statement
+		assertThat(queries.totalAmount() - statements).isEqualTo(1);
+	}
+
+	@Test
+	void refusedBookingsAreCounted() {
+		double oversells = registry.get("booking.oversell.attempts").counter().count();
+		double failures = registry.get("flight.seats.reserve.failed").counter().count();
+		long bookings = registry.get("booking.create").timer().count();
+
+		Booking booking = new Booking(null, flight, "Too Many", "many@example.com", "+4700000000", 3, null);
+		assertThatThrownBy(() -> bookingService.createBooking(booking)).isInstanceOf(RuntimeException.class);
+
+		assertThat(registry.get("booking.oversell.attempts").counter().count()).isEqualTo(oversells + 1);
+		assertThat(registry.get("flight.seats.reserve.failed").counter().count()).isEqualTo(failures + 1);
+		assertThat(registry.get("booking.create").timer().count()).isEqualTo(bookings + 1);
+	}
+}
@@ -0,0 +1,159 @@
+package com.shubham.FlightManagementSystem.readmodel;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.entity.Flight.FlightStatus;
+import com.shubham.FlightManagementSystem.event.AirportChangedEvent;
+import com.shubham.FlightManagementSystem.event.FlightChangedEvent;
+import com.shubham.FlightManagementSystem.event.SeatCount;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// The projection follows committed changes, and a consistency token makes a reader wait for its own write
+class FlightReadModelTests {
+
+	private final LocalDateTime departure = LocalDateTime.now().plusDays(2).withNano(0);
+
+	private final Airport hnd = airport(1L, "HND", "Haneda");
+
+	private final Airport itm = airport(2L, "ITM", "Itami");
+
+	private FlightRepository flightRepository;
+
+	private FlightReadModel readModel;
+
+	@BeforeEach
+	void start() throws Exception {
+		flightRepository = mock(FlightRepository.class);
+		when(flightRepository.findAllWithAirports()).thenReturn(List.of(flight(1L, "RM1", 100, 0), flight(2L, "RM2", 5, 3)));
+		readModel = new FlightReadModel();
+		ReflectionTestUtils.setField(readModel, "flightRepository", flightRepository);
+		ReflectionTestUtils.setField(readModel, "enabled", true);
+		ReflectionTestUtils.setField(readModel, "maxStalenessMs", 1000L);
+		ReflectionTestUtils.setField(readModel, "tokenWaitMs", 2000L);
+		readModel.start();
+		readModel.warmUp();
+		assertThat(readModel.canServe(Long.parseLong(readModel.currentToken()))).isTrue();
+	}
+
+	@AfterEach
+	void stop() {
+		readModel.stop();
+	}
+
+	@Test
+	void tokenReadsSeeTheirOwnSeatChange() {
+		readModel.onFlightChanged(FlightChangedEvent.seatsChanged(1L, -4, new SeatCount(96, 1)));
+		long token = Long.parseLong(readModel.currentToken());
+
+		assertThat(readModel.canServe(token)).isTrue();
+		assertThat(readModel.getFlightById(1L).orElseThrow().getAvailableSeats()).isEqualTo(96);
+		assertThat(readModel.searchFlights("HND", "ITM", departure, 97)).isEmpty();
+		assertThat(readModel.searchFlights("HND", "ITM", departure, 5))
+				.extracting(Flight::getFlightNumber).containsExactly("RM1", "RM2");
+	}
+
+	@Test
+	void savesDeletesAndAirportRenamesReachEveryView() {
+		Flight moved = flight(2L, "RM2B", 5, 3);
+		moved.setArrivalAirport(hnd);
+		moved.setDepartureAirport(itm);
+		readModel.onFlightChanged(FlightChangedEvent.saved(moved));
+		readModel.onFlightChanged(FlightChangedEvent.deleted(1L));
+		readModel.onAirportChanged(AirportChangedEvent.saved(airport(1L, "HND", "Tokyo Haneda")));
+		assertThat(readModel.canServe(Long.parseLong(readModel.currentToken()))).isTrue();
+
+		assertThat(readModel.getFlightByNumber("RM2")).isEmpty();
+		assertThat(readModel.getFlightByNumber("RM2B").orElseThrow().getArrivalAirport().getName()).isEqualTo("Tokyo Haneda");
+		assertThat(readModel.searchFlights("HND", "ITM", departure, 1)).isEmpty();
+		assertThat(readModel.searchFlights("ITM", "HND", departure, 1)).hasSize(1);
+		assertThat(readModel.getAvailableFlights()).extracting(Flight::getId).containsExactly(2L);
+		assertThat(readModel.getFlightsByDepartureAirport("HND")).isEmpty();
+	}
+
+	@Test
+	void etagFollowsAppliedChanges() {
+		String before = readModel.etag(MediaType.APPLICATION_JSON);
+		readModel.onFlightChanged(FlightChangedEvent.seatsChanged(2L, 1, new SeatCount(6, 1)));
+		assertThat(readModel.canServe(Long.parseLong(readModel.currentToken()))).isTrue();
+		assertThat(readModel.etag(MediaType.APPLICATION_JSON)).isNotEqualTo(before).startsWith("W/");
+		assertThat(readModel.etag(MediaType.APPLICATION_CBOR)).isNotEqualTo(readModel.etag(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	void rebuildDoesNotReapplyChangesItLoaded() throws Exception {
+		CountDownLatch firstLoadStarted = new CountDownLatch(1);
+		CountDownLatch releaseFirstLoad = new CountDownLatch(1);
+		when(flightRepository.findAllWithAirports()).thenAnswer(invocation -> {
+			firstLoadStarted.countDown();
+			releaseFirstLoad.await();
+			return List.of(flight(1L, "RM1", 100, 0));
+		}).thenReturn(List.of(seatsAt(flight(1L, "RM1", 96, 0), 1)));
+
+		readModel.warmUp();
+		assertThat(firstLoadStarted.await(2, TimeUnit.SECONDS)).isTrue();
+		// Queued behind the second rebuild, but committed before it reads the table
+		readModel.warmUp();
+		readModel.onFlightChanged(FlightChangedEvent.seatsChanged(1L, -4, new SeatCount(96, 1)));
+		releaseFirstLoad.countDown();
+
+		assertThat(readModel.canServe(Long.parseLong(readModel.currentToken()))).isTrue();
+		assertThat(readModel.getFlightById(1L).orElseThrow().getAvailableSeats()).isEqualTo(96);
+	}
+
+	@Test
+	void seatCountsApplyOnceWhateverTheirOrder() {
+		readModel.onFlightChanged(FlightChangedEvent.seatsChanged(1L, -2, new SeatCount(96, 2)));
+		readModel.onFlightChanged(FlightChangedEvent.seatsChanged(1L, -2, new SeatCount(98, 1)));
+		Flight delayed = flight(1L, "RM1", 100, 0);
+		delayed.setStatus(FlightStatus.DELAYED);
+		readModel.onFlightChanged(FlightChangedEvent.saved(delayed));
+		assertThat(readModel.canServe(Long.parseLong(readModel.currentToken()))).isTrue();
+
+		Flight current = readModel.getFlightById(1L).orElseThrow();
+		assertThat(current.getAvailableSeats()).isEqualTo(96);
+		assertThat(current.getStatus()).isEqualTo(FlightStatus.DELAYED);
+
+		// A rebuild that already read the last change, which then arrives after it
+		when(flightRepository.findAllWithAirports()).thenReturn(List.of(seatsAt(flight(1L, "RM1", 94, 0), 3)));
+		readModel.warmUp();
+		readModel.onFlightChanged(FlightChangedEvent.seatsChanged(1L, -2, new SeatCount(94, 3)));
+		assertThat(readModel.canServe(Long.parseLong(readModel.currentToken()))).isTrue();
+
+		assertThat(readModel.getFlightById(1L).orElseThrow().getAvailableSeats()).isEqualTo(94);
+	}
+
+	private static Flight seatsAt(Flight flight, long version) {
+		flight.setSeatVersion(version);
+		return flight;
+	}
+
+	private Flight flight(Long id, String number, int seats, int hoursAfter) {
+		Flight flight = new Flight(number, hnd, itm, departure.plusHours(hoursAfter), departure.plusHours(hoursAfter + 1),
+				"B787", 300, new BigDecimal("90.00"));
+		flight.setId(id);
+		flight.setAvailableSeats(seats);
+		flight.setStatus(FlightStatus.SCHEDULED);
+		return flight;
+	}
+
+	private static Airport airport(Long id, String code, String name) {
+		Airport airport = new Airport(code, name, "Tokyo", "Japan");
+		airport.setId(id);
+		return airport;
+	}
+}
@@ -0,0 +1,52 @@
+package com.shubham.FlightManagementSystem.reference;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// References never repeat, within a node or across nodes, and carry a working check symbol
+class TimeOrderedReferenceGeneratorTests {
+
+	@Test
+	void concurrentReferencesAreUniqueAcrossNodes() throws Exception {
+		TimeOrderedReferenceGenerator first = new TimeOrderedReferenceGenerator(1);
+		TimeOrderedReferenceGenerator second = new TimeOrderedReferenceGenerator(2);
+		Set<String> references = ConcurrentHashMap.newKeySet();
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		for (int t = 0; t < 16; t++) {
+			TimeOrderedReferenceGenerator generator = t % 2 == 0 ? first : second;
+			pool.execute(() -> {
+				for (int i = 0; i < 25_000; i++) {
+					references.add(generator.nextReference());
+				}
+			});
+		}
+		pool.shutdown();
+		assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+		assertThat(references).hasSize(16 * 25_000);
+		assertThat(references).allMatch(TimeOrderedReferenceGenerator::isValid);
+	}
+
+	@Test
+	void checkSymbolCatchesTypos() {
+		String reference = new TimeOrderedReferenceGenerator(7).nextReference();
+		char digit = reference.charAt(10);
+		String typo = reference.substring(0, 10) + (digit == '0' ? '1' : '0') + reference.substring(11);
+
+		assertThat(reference).startsWith("BK").hasSize(16);
+		assertThat(TimeOrderedReferenceGenerator.isValid(reference)).isTrue();
+		assertThat(TimeOrderedReferenceGenerator.isValid(typo)).isFalse();
+	}
+
+	@Test
+	void nodeIdMustFitTenBits() {
+		assertThatThrownBy(() -> new TimeOrderedReferenceGenerator(1024)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,136 @@
+package com.shubham.FlightManagementSystem.routing;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Booking;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.repository.AirportRepository;
+import com.shubham.FlightManagementSystem.repository.BookingRepository;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import com.shubham.FlightManagementSystem.service.BookingService;
+import com.shubham.FlightManagementSystem.service.FlightService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Connections respect the minimum transfer time, and seats booked after the timetable was built are honoured
+@SpringBootTest
+class ItineraryServiceTests {
+
+	@Autowired
+	private ItineraryService itineraryService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private FlightService flightService;
+
+	@Autowired
+	private AirportRepository airportRepository;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	private final LocalDateTime morning = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.DAYS).withHour(8);
+
+	private Flight direct;
+
+	private Flight tightConnection;
+
+	@BeforeEach
+	void seed() {
+		Airport oslo = airportRepository.save(new Airport("OSL", "Gardermoen", "Oslo", "Norway"));
+		Airport copenhagen = airportRepository.save(new Airport("CPH", "Kastrup", "Copenhagen", "Denmark"));
+		Airport stockholm = airportRepository.save(new Airport("ARN", "Arlanda", "Stockholm", "Sweden"));
+		flight("SK1", oslo, copenhagen, 0, 60, 100);
+		// 30 minutes after SK1 lands, under the 45 minute minimum connection
+		tightConnection = flight("SK2", copenhagen, stockholm, 90, 150, 100);
+		flight("SK3", copenhagen, stockholm, 120, 180, 100);
+		direct = flight("SK4", oslo, stockholm, 30, 240, 2);
+		itineraryService.rebuild();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		bookingRepository.deleteAll();
+		flightRepository.deleteAll();
+		airportRepository.deleteAll();
+		itineraryService.rebuild();
+	}
+
+	@Test
+	void connectionsAreFoundInArrivalOrder() {
+		List<Itinerary> itineraries = search(1, 3);
+
+		assertThat(itineraries).hasSize(2);
+		assertThat(numbersOf(itineraries.get(0))).containsExactly("SK1", "SK3");
+		assertThat(itineraries.get(0).connections()).isEqualTo(1);
+		assertThat(itineraries.get(0).arrivalTime()).isEqualTo(morning.plusMinutes(180));
+		assertThat(itineraries.get(0).totalPrice()).isEqualByComparingTo("200.00");
+		assertThat(numbersOf(itineraries.get(1))).containsExactly("SK4");
+	}
+
+	@Test
+	void tightConnectionIsNeverOffered() {
+		assertThat(search(1, 3)).noneMatch(itinerary -> numbersOf(itinerary).contains("SK2"));
+		assertThat(search(1, 1)).extracting(this::numbersOf).containsExactly(List.of("SK4"));
+	}
+
+	@Test
+	void bookedOutFlightIsSkipped() {
+		bookingService.createBooking(booking(direct, 2));
+
+		List<Itinerary> itineraries = search(1, 3);
+
+		assertThat(itineraries).hasSize(1);
+		assertThat(numbersOf(itineraries.get(0))).containsExactly("SK1", "SK3");
+		assertThat(search(1, 1)).isEmpty();
+	}
+
+	@Test
+	void seatsBookedBeforeAScheduleChangeAreKept() {
+		bookingService.createBooking(booking(direct, 1));
+		// Removing a flight rebuilds the timetable's structure around the booked one
+		flightService.deleteFlight(tightConnection.getId());
+
+		assertThat(search(2, 1)).isEmpty();
+		Itinerary direct = search(1, 1).get(0);
+		assertThat(numbersOf(direct)).containsExactly("SK4");
+		assertThat(direct.legs().get(0).getAvailableSeats()).isEqualTo(1);
+	}
+
+	private List<Itinerary> search(int seats, int maxLegs) {
+		return itineraryService.searchItineraries("OSL", "ARN", morning.minusHours(1), seats, maxLegs, 5);
+	}
+
+	private List<String> numbersOf(Itinerary itinerary) {
+		return itinerary.legs().stream().map(Flight::getFlightNumber).toList();
+	}
+
+	private Flight flight(String number, Airport from, Airport to, int departsAfter, int arrivesAfter, int seats) {
+		return flightRepository.save(new Flight(number, from, to, morning.plusMinutes(departsAfter),
+				morning.plusMinutes(arrivesAfter), "A320", seats, new BigDecimal("100.00")));
+	}
+
+	private Booking booking(Flight flight, int seats) {
+		Booking booking = new Booking();
+		booking.setFlight(flight);
+		booking.setPassengerName("Itinerary Passenger");
+		booking.setEmail("itinerary@example.com");
+		booking.setPhoneNumber("+470000000");
+		booking.setNumberOfSeats(seats);
+		return booking;
+	}
+}
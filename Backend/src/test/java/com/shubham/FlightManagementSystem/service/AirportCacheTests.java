@@ -0,0 +1,108 @@
+package com.shubham.FlightManagementSystem.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.repository.AirportRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The warm airport cache changes only when an airport write commits
+@SpringBootTest
+@AutoConfigureMockMvc
+class AirportCacheTests {
+
+	@Autowired
+	private AirportService airportService;
+
+	@Autowired
+	private AirportRepository airportRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private Airport airport;
+
+	@BeforeEach
+	void seed() {
+		airport = airportService.saveAirport(new Airport("KEF", "Keflavik International", "Reykjavik", "Iceland"));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		airportRepository.findAll().stream()
+				.filter(saved -> saved.getCountry().equals("Iceland"))
+				.forEach(saved -> airportService.deleteAirport(saved.getId()));
+	}
+
+	@Test
+	void changesReachTheCacheWhenTheyCommit() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			airportService.updateAirport(airport.getId(), new Airport("RKV", "Reykjavik Domestic", "Reykjavik", "Iceland"));
+			// Still the committed airport until the transaction ends
+			assertThat(airportService.getAirportByCode("KEF")).isPresent();
+			assertThat(airportService.airportExists("RKV")).isFalse();
+		});
+
+		assertThat(airportService.getAirportByCode("KEF")).isEmpty();
+		assertThat(airportService.getAirportById(airport.getId()).orElseThrow().getName()).isEqualTo("Reykjavik Domestic");
+		assertThat(airportService.getAllAirports()).extracting(Airport::getCode).contains("RKV").doesNotContain("KEF");
+
+		airportService.deleteAirport(airport.getId());
+		assertThat(airportService.getAirportById(airport.getId())).isEmpty();
+		assertThat(airportService.airportExists("RKV")).isFalse();
+	}
+
+	@Test
+	void rolledBackWritesLeaveTheCacheAlone() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			airportService.saveAirport(new Airport("AEY", "Akureyri", "Akureyri", "Iceland"));
+			airportService.updateAirport(airport.getId(), new Airport("KEF", "Renamed", "Reykjavik", "Iceland"));
+			status.setRollbackOnly();
+		});
+
+		assertThat(airportService.airportExists("AEY")).isFalse();
+		assertThat(airportService.getAirportByCode("KEF").orElseThrow().getName()).isEqualTo("Keflavik International");
+		assertThat(airportService.getAllAirports()).extracting(Airport::getCode).doesNotContain("AEY");
+	}
+
+	@Test
+	void statsEndpointCountsLookups() throws Exception {
+		JsonNode before = stats();
+		assertThat(before.get("warm").asBoolean()).isTrue();
+		assertThat(before.get("size").asLong()).isEqualTo(airportRepository.count());
+
+		airportService.getAirportByCode("KEF");
+		// Once warm a missing airport is answered from the cache too
+		airportService.getAirportByCode("XXX");
+		airportService.getAllAirports();
+
+		JsonNode after = stats();
+		assertThat(after.get("hits").asLong() - before.get("hits").asLong()).isEqualTo(3);
+		assertThat(after.get("misses").asLong()).isEqualTo(before.get("misses").asLong());
+	}
+
+	private JsonNode stats() throws Exception {
+		String body = mockMvc.perform(get("/api/airports/cache/stats"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+}
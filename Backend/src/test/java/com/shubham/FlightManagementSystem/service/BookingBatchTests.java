@@ -0,0 +1,136 @@
+package com.shubham.FlightManagementSystem.service;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Booking;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.repository.AirportRepository;
+import com.shubham.FlightManagementSystem.repository.BookingRepository;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import com.shubham.FlightManagementSystem.service.BookingService.BatchMode;
+import com.shubham.FlightManagementSystem.service.BookingService.BatchResult;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// A group booking is a few batched statements, and ATOMIC batches leave nothing behind on failure
+@SpringBootTest
+class BookingBatchTests {
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private AirportRepository airportRepository;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Flight large;
+
+	private Flight small;
+
+	@BeforeEach
+	void seed() {
+		Airport departure = airportRepository.save(new Airport("MAA", "Chennai International", "Chennai", "India"));
+		Airport arrival = airportRepository.save(new Airport("BLR", "Kempegowda International", "Bengaluru", "India"));
+		LocalDateTime departureTime = LocalDateTime.now().plusDays(3).withNano(0);
+		large = flightRepository.save(new Flight("GB100", departure, arrival, departureTime,
+				departureTime.plusHours(1), "B777", 1200, new BigDecimal("80.00")));
+		small = flightRepository.save(new Flight("GB200", departure, arrival, departureTime.plusHours(4),
+				departureTime.plusHours(5), "ATR72", 10, new BigDecimal("60.00")));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		bookingRepository.deleteAll();
+		flightRepository.deleteAll();
+		airportRepository.deleteAll();
+	}
+
+	@Test
+	void thousandBookingsTakeAHandfulOfStatements() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		BatchResult result = bookingService.createBookings(bookings(large, 1000), BatchMode.ATOMIC);
+
+		assertThat(result.booked()).isEqualTo(1000);
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(1000);
+		assertThat(statistics.getPrepareStatementCount()).isLessThan(30);
+		assertThat(flightRepository.findById(large.getId()).orElseThrow().getAvailableSeats()).isEqualTo(200);
+	}
+
+	@Test
+	void atomicBatchRollsBackWhenAnyFlightIsFull() {
+		List<Booking> bookings = bookings(large, 5);
+		bookings.addAll(bookings(small, 11));
+
+		assertThatThrownBy(() -> bookingService.createBookings(bookings, BatchMode.ATOMIC))
+				.isInstanceOf(RuntimeException.class);
+
+		assertThat(bookingRepository.count()).isZero();
+		assertThat(flightRepository.findById(large.getId()).orElseThrow().getAvailableSeats()).isEqualTo(1200);
+		assertThat(flightRepository.findById(small.getId()).orElseThrow().getAvailableSeats()).isEqualTo(10);
+	}
+
+	@Test
+	void perItemBatchBooksWhatFits() {
+		List<Booking> bookings = bookings(large, 5);
+		bookings.addAll(bookings(small, 12));
+
+		BatchResult result = bookingService.createBookings(bookings, BatchMode.PER_ITEM);
+
+		assertThat(result.booked()).isEqualTo(15);
+		assertThat(result.items()).filteredOn(item -> item.error() != null).hasSize(2);
+		assertThat(bookingRepository.count()).isEqualTo(15);
+		assertThat(flightRepository.findById(small.getId()).orElseThrow().getAvailableSeats()).isZero();
+	}
+
+	@Test
+	void perItemBatchRejectsMissingSeatCount() {
+		List<Booking> bookings = bookings(large, 3);
+		bookings.get(1).setNumberOfSeats(null);
+
+		BatchResult result = bookingService.createBookings(bookings, BatchMode.PER_ITEM);
+
+		assertThat(result.booked()).isEqualTo(2);
+		assertThat(result.items().get(1).error()).isNotNull();
+		assertThat(bookingRepository.count()).isEqualTo(2);
+		assertThat(flightRepository.findById(large.getId()).orElseThrow().getAvailableSeats()).isEqualTo(1198);
+	}
+
+	private static List<Booking> bookings(Flight flight, int count) {
+		List<Booking> bookings = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Flight reference = new Flight();
+			reference.setId(flight.getId());
+			Booking booking = new Booking();
+			booking.setFlight(reference);
+			booking.setPassengerName("Group Passenger " + i);
+			booking.setEmail("group" + i + "@example.com");
+			booking.setPhoneNumber("+9100000" + i);
+			booking.setNumberOfSeats(1);
+			bookings.add(booking);
+		}
+		return bookings;
+	}
+}
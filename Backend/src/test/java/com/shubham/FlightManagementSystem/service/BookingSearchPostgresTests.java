@@ -0,0 +1,127 @@
+package com.shubham.FlightManagementSystem.service;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Booking;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.repository.AirportRepository;
+import com.shubham.FlightManagementSystem.repository.BookingRepository;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Booking search runs native pg_trgm/unaccent SQL that H2 cannot execute, so it is checked against a
+// real PostgreSQL with schema-postgresql.sql applied. Run with mvn test -Ppostgresql (needs Docker).
+@Tag("postgresql")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+		"spring.sql.init.mode=always",
+		"spring.sql.init.platform=postgresql",
+		"spring.jpa.defer-datasource-initialization=true"
+})
+class BookingSearchPostgresTests {
+
+	@Container
+	@ServiceConnection
+	static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private AirportRepository airportRepository;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Booking jose;
+
+	private Booking joseph;
+
+	private Booking smithByEmail;
+
+	@BeforeEach
+	void seed() {
+		Airport departure = airportRepository.save(new Airport("MAD", "Barajas", "Madrid", "Spain"));
+		Airport arrival = airportRepository.save(new Airport("BCN", "El Prat", "Barcelona", "Spain"));
+		LocalDateTime departureTime = LocalDateTime.now().plusDays(8).withNano(0);
+		Flight flight = flightRepository.save(new Flight("IB300", departure, arrival, departureTime,
+				departureTime.plusHours(1), "A321", 100, new BigDecimal("55.00")));
+		jose = bookingService.createBooking(booking(flight, "José Álvarez", "alvarez@example.org"));
+		joseph = bookingService.createBooking(booking(flight, "Joseph Brown", "brown@example.com"));
+		smithByEmail = bookingService.createBooking(booking(flight, "Maria Lopez", "smith.family@example.com"));
+		bookingService.createBooking(booking(flight, "John Smith", "john@example.com"));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		bookingRepository.deleteAll();
+		flightRepository.deleteAll();
+		airportRepository.deleteAll();
+	}
+
+	@Test
+	void trigramIndexesAreCreated() {
+		List<String> indexes = jdbcTemplate.queryForList(
+				"SELECT indexname FROM pg_indexes WHERE tablename = 'bookings'", String.class);
+
+		assertThat(indexes).contains("idx_bookings_passenger_name_trgm", "idx_bookings_email_trgm",
+				"idx_bookings_reference_trgm", "idx_bookings_pending_holds");
+	}
+
+	@Test
+	void unaccentedTermRanksTheClosestNameFirst() {
+		List<Booking> results = bookingService.searchBookings("jose", 0, 10);
+
+		assertThat(results).extracting(Booking::getId).containsExactly(jose.getId(), joseph.getId());
+	}
+
+	@Test
+	void fieldPrefixesSearchOneColumn() {
+		assertThat(bookingService.searchBookings("name:smith", 0, 10))
+				.extracting(Booking::getPassengerName).containsExactly("John Smith");
+		assertThat(bookingService.searchBookings("email:smith", 0, 10))
+				.extracting(Booking::getId).containsExactly(smithByEmail.getId());
+		assertThat(bookingService.searchBookings("Email: EXAMPLE.ORG", 0, 10))
+				.extracting(Booking::getId).containsExactly(jose.getId());
+		assertThat(bookingService.searchBookings("ref:" + joseph.getBookingReference(), 0, 10))
+				.extracting(Booking::getId).containsExactly(joseph.getId());
+		// Unprefixed, the same term matches names and emails alike
+		assertThat(bookingService.searchBookings("smith", 0, 10)).hasSize(2);
+	}
+
+	@Test
+	void likeWildcardsInTheTermAreLiteral() {
+		assertThat(bookingService.searchBookings("name:jo%n", 0, 10)).isEmpty();
+	}
+
+	private static Booking booking(Flight flight, String name, String email) {
+		Booking booking = new Booking();
+		booking.setFlight(flight);
+		booking.setPassengerName(name);
+		booking.setEmail(email);
+		booking.setPhoneNumber("+340000000");
+		booking.setNumberOfSeats(1);
+		return booking;
+	}
+}
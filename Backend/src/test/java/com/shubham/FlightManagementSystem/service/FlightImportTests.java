@@ -0,0 +1,119 @@
+package com.shubham.FlightManagementSystem.service;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import com.shubham.FlightManagementSystem.service.FlightImportService.Format;
+import com.shubham.FlightManagementSystem.service.FlightImportService.ImportReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Bulk imports write every valid row and report each bad one with its line number
+@SpringBootTest
+class FlightImportTests {
+
+	private static final int ROWS = 2500;
+
+	@Autowired
+	private FlightImportService flightImportService;
+
+	@Autowired
+	private FlightService flightService;
+
+	@Autowired
+	private AirportService airportService;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	private final List<Airport> airports = new ArrayList<>();
+
+	@BeforeEach
+	void seed() {
+		airports.add(airportService.saveAirport(new Airport("HYD", "Rajiv Gandhi International", "Hyderabad", "India")));
+		airports.add(airportService.saveAirport(new Airport("CCU", "Netaji Subhas Chandra Bose International", "Kolkata", "India")));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		flightRepository.deleteAll();
+		airports.forEach(airport -> airportService.deleteAirport(airport.getId()));
+		airports.clear();
+	}
+
+	@Test
+	void csvImportWritesValidRowsAndReportsTheRest() throws Exception {
+		LocalDateTime departure = LocalDateTime.now().plusDays(10).withNano(0);
+		StringBuilder csv = new StringBuilder("flightNumber,departureCode,arrivalCode,departureTime,arrivalTime,aircraftType,totalSeats,price\n");
+		for (int i = 0; i < ROWS; i++) {
+			csv.append("IM").append(i).append(",HYD,CCU,").append(departure.plusMinutes(i)).append(',')
+					.append(departure.plusMinutes(i + 150)).append(",\"A320, neo\",180,120.50\n");
+		}
+		csv.append("IM0,HYD,CCU,").append(departure).append(',').append(departure.plusHours(2)).append(",A320,180,99\n");
+		csv.append("IMX,HYD,XXX,").append(departure).append(',').append(departure.plusHours(2)).append(",A320,180,99\n");
+		csv.append("IMY,HYD,CCU,not-a-time,").append(departure).append(",A320,180,99\n");
+
+		ImportReport report = flightImportService.importFlights(stream(csv.toString()), Format.CSV);
+
+		assertThat(report.imported()).isEqualTo(ROWS);
+		assertThat(report.failed()).isEqualTo(3);
+		assertThat(report.errors()).extracting(FlightImportService.RowError::line)
+				.containsExactly(ROWS + 2L, ROWS + 3L, ROWS + 4L);
+		assertThat(flightRepository.count()).isEqualTo(ROWS);
+		assertThat(flightService.getFlightByNumber("IM7").orElseThrow().getAircraftType()).isEqualTo("A320, neo");
+		assertThat(flightService.searchFlights("HYD", "CCU", departure, 1)).hasSize(ROWS);
+	}
+
+	@Test
+	void ndjsonImportAcceptsTheSameFields() throws Exception {
+		LocalDateTime departure = LocalDateTime.now().plusDays(10).withNano(0);
+		String ndjson = "{\"flightNumber\":\"NJ1\",\"departureCode\":\"HYD\",\"arrivalCode\":\"CCU\",\"departureTime\":\""
+				+ departure + "\",\"arrivalTime\":\"" + departure.plusHours(2)
+				+ "\",\"aircraftType\":\"B737\",\"totalSeats\":160,\"price\":80,\"status\":\"delayed\"}\n"
+				+ "{\"flightNumber\":\"NJ2\",\"departureCode\":\"HYD\",\"arrivalCode\":\"HYD\",\"departureTime\":\""
+				+ departure + "\",\"arrivalTime\":\"" + departure.plusHours(2)
+				+ "\",\"aircraftType\":\"B737\",\"totalSeats\":160,\"price\":80}\n";
+
+		ImportReport report = flightImportService.importFlights(stream(ndjson), Format.NDJSON);
+
+		assertThat(report.imported()).isEqualTo(1);
+		assertThat(report.errors()).singleElement().extracting(FlightImportService.RowError::line).isEqualTo(2L);
+		assertThat(flightService.getFlightByNumber("NJ1").orElseThrow().getAvailableSeats()).isEqualTo(160);
+	}
+
+	@Test
+	void rowsOfARejectedChunkCanBeRetriedLaterInTheFile() throws Exception {
+		LocalDateTime departure = LocalDateTime.now().plusDays(10).withNano(0);
+		StringBuilder csv = new StringBuilder("flightNumber,departureCode,arrivalCode,departureTime,arrivalTime,aircraftType,totalSeats,price\n");
+		// The whole first chunk fails on an aircraft type longer than its column
+		for (int i = 0; i < 1000; i++) {
+			String aircraft = i == 999 ? "A".repeat(300) : "A320";
+			csv.append("RJ").append(i).append(",HYD,CCU,").append(departure).append(',')
+					.append(departure.plusHours(2)).append(',').append(aircraft).append(",180,99\n");
+		}
+		for (int i = 0; i < 10; i++) {
+			csv.append("RJ").append(i).append(",HYD,CCU,").append(departure).append(',')
+					.append(departure.plusHours(2)).append(",A320,180,99\n");
+		}
+
+		ImportReport report = flightImportService.importFlights(stream(csv.toString()), Format.CSV);
+
+		assertThat(report.failed()).isEqualTo(1000);
+		assertThat(report.imported()).isEqualTo(10);
+		assertThat(flightService.getFlightByNumber("RJ0")).isPresent();
+	}
+
+	private static ByteArrayInputStream stream(String body) {
+		return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,159 @@
+package com.shubham.FlightManagementSystem.service;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.event.SeatCount;
+import com.shubham.FlightManagementSystem.repository.AirportRepository;
+import com.shubham.FlightManagementSystem.repository.FlightRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Thousands of concurrent reservations against one flight must never sell more than its seats
+@SpringBootTest
+class SeatReservationConcurrencyTests {
+
+	private static final int TOTAL_SEATS = 150;
+
+	private static final int THREADS = 64;
+
+	private static final int REQUESTS = 4000;
+
+	@Autowired
+	private FlightService flightService;
+
+	@Autowired
+	private AirportRepository airportRepository;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private Flight flight;
+
+	@BeforeEach
+	void seed() {
+		Airport departure = airportRepository.save(new Airport("BOM", "Chhatrapati Shivaji Maharaj International", "Mumbai", "India"));
+		Airport arrival = airportRepository.save(new Airport("DEL", "Indira Gandhi International", "Delhi", "India"));
+		LocalDateTime departureTime = LocalDateTime.now().plusDays(7).withNano(0);
+		flight = flightRepository.save(new Flight("FS101", departure, arrival, departureTime,
+				departureTime.plusHours(2), "A321", TOTAL_SEATS, new BigDecimal("99.00")));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		flightRepository.deleteAll();
+		airportRepository.deleteAll();
+	}
+
+	@Test
+	void concurrentReservationsNeverOversell() throws Exception {
+		AtomicInteger reservedSeats = new AtomicInteger();
+		runConcurrently(request -> {
+			int seats = request % 3 + 1;
+			if (flightService.reserveSeats(flight.getId(), seats)) {
+				reservedSeats.addAndGet(seats);
+			}
+		});
+
+		int availableSeats = flightRepository.findById(flight.getId()).orElseThrow().getAvailableSeats();
+		assertThat(availableSeats).isGreaterThanOrEqualTo(0);
+		assertThat(reservedSeats.get() + availableSeats).isEqualTo(TOTAL_SEATS);
+		// Requests far outnumber seats, so only a remainder smaller than the largest request can be left
+		assertThat(availableSeats).isLessThan(3);
+	}
+
+	@Test
+	void reservationRefreshesTheCallersFlightWithoutDetachingIt() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Flight loaded = flightRepository.findById(flight.getId()).orElseThrow();
+
+			assertThat(flightService.reserveSeats(flight.getId(), 4)).isTrue();
+
+			assertThat(entityManager.contains(loaded)).isTrue();
+			assertThat(loaded.getAvailableSeats()).isEqualTo(TOTAL_SEATS - 4);
+		});
+		flightService.releaseSeats(flight.getId(), 1);
+
+		// Every change moves the seat version on, so listeners can order the counts they are sent
+		assertThat(flightRepository.findSeatCount(flight.getId())).isEqualTo(new SeatCount(TOTAL_SEATS - 3, 2));
+	}
+
+	@Test
+	void concurrentReleasesNeverExceedTotalSeats() throws Exception {
+		assertThat(flightService.reserveSeats(flight.getId(), TOTAL_SEATS)).isTrue();
+
+		runConcurrently(request -> flightService.releaseSeats(flight.getId(), 1));
+
+		assertThat(flightRepository.findById(flight.getId()).orElseThrow().getAvailableSeats()).isEqualTo(TOTAL_SEATS);
+	}
+
+	@Test
+	void mixedReservationsAndReleasesKeepSeatsConsistent() throws Exception {
+		AtomicInteger heldSeats = new AtomicInteger();
+		runConcurrently(request -> {
+			if (flightService.reserveSeats(flight.getId(), 2)) {
+				heldSeats.addAndGet(2);
+				if (request % 2 == 0) {
+					flightService.releaseSeats(flight.getId(), 2);
+					heldSeats.addAndGet(-2);
+				}
+			}
+		});
+
+		int availableSeats = flightRepository.findById(flight.getId()).orElseThrow().getAvailableSeats();
+		assertThat(heldSeats.get() + availableSeats).isEqualTo(TOTAL_SEATS);
+	}
+
+	private void runConcurrently(RequestBody body) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Void>> futures = new ArrayList<>(REQUESTS);
+			for (int i = 0; i < REQUESTS; i++) {
+				int request = i;
+				Callable<Void> task = () -> {
+					start.await();
+					body.run(request);
+					return null;
+				};
+				futures.add(executor.submit(task));
+			}
+			start.countDown();
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@FunctionalInterface
+	private interface RequestBody {
+		void run(int request);
+	}
+}
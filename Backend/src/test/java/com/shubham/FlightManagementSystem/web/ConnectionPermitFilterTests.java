@@ -0,0 +1,72 @@
+package com.shubham.FlightManagementSystem.web;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs on a real Tomcat, which initializes the filter itself; with every permit taken API calls get 503
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"flight.db-permits.enabled=true",
+		"flight.db-permits.permits=1",
+		"flight.db-permits.acquire-timeout=PT0.2S"})
+class ConnectionPermitFilterTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private ConnectionPermitFilter connectionPermitFilter;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void exhaustedPermitsAnswer503WithRetryAfter() throws Exception {
+		assertThat(get("/api/airports").statusCode()).isEqualTo(200);
+		assertThat(connectionPermitFilter.availablePermits()).isEqualTo(1);
+
+		Semaphore semaphore = (Semaphore) ReflectionTestUtils.getField(connectionPermitFilter, "semaphore");
+		semaphore.acquire();
+		try {
+			HttpResponse<String> rejected = get("/api/airports");
+			assertThat(rejected.statusCode()).isEqualTo(503);
+			assertThat(rejected.headers().firstValue("Retry-After")).hasValue("1");
+		} finally {
+			semaphore.release();
+		}
+		assertThat(get("/api/airports").statusCode()).isEqualTo(200);
+	}
+
+	@Test
+	void permitsFollowThePoolSizeBeforeThePoolStarts() {
+		HikariDataSource unsized = new HikariDataSource();
+		HikariDataSource sized = new HikariDataSource();
+		sized.setMaximumPoolSize(4);
+
+		assertThat(initializedWith(unsized).availablePermits()).isEqualTo(10);
+		assertThat(initializedWith(sized).availablePermits()).isEqualTo(4);
+	}
+
+	private static ConnectionPermitFilter initializedWith(HikariDataSource dataSource) {
+		ConnectionPermitFilter filter = new ConnectionPermitFilter();
+		ReflectionTestUtils.setField(filter, "dataSource", dataSource);
+		ReflectionTestUtils.setField(filter, "enabled", true);
+		filter.init();
+		return filter;
+	}
+
+	private HttpResponse<String> get(String path) throws Exception {
+		return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+				HttpResponse.BodyHandlers.ofString());
+	}
+}
@@ -0,0 +1,79 @@
+package com.shubham.FlightManagementSystem.benchmarks;
+
+import com.shubham.FlightManagementSystem.FlightManagementSystemApplication;
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.service.AirportService;
+import com.shubham.FlightManagementSystem.service.FlightService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Boots the real application against an in-memory H2 database in PostgreSQL mode. The
+// application's own application.properties targets PostgreSQL, so everything database-related
+// is overridden here; the rest (batching, caches, indexes) is what production runs with.
+// Settings are passed as command-line arguments, which outrank application.properties, and a
+// later "key=value" replaces an earlier one with the same key.
+final class BenchmarkApplication {
+    
+    static final String[] AIRPORT_CODES = {"AMS", "FRA", "CDG", "MAD", "FCO", "VIE", "ZRH", "CPH", "ARN", "LIS"};
+    
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    
+    private BenchmarkApplication() {
+    }
+    
+    static ConfigurableApplicationContext start(String... properties) {
+        List<String> all = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.main.banner-mode=off",
+                "spring.datasource.url=jdbc:h2:mem:benchmark_" + DATABASES.incrementAndGet()
+                        + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.sql.init.mode=never",
+                // application.properties turns on SQL and parameter logging by name, which root does not override
+                "logging.level.root=WARN",
+                "logging.level.com.shubham.FlightManagementSystem=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+        all.addAll(List.of(properties));
+        Map<String, String> merged = new LinkedHashMap<>();
+        for (String property : all) {
+            int equals = property.indexOf('=');
+            merged.put(property.substring(0, equals), property.substring(equals + 1));
+        }
+        return new SpringApplicationBuilder(FlightManagementSystemApplication.class)
+                .run(merged.entrySet().stream()
+                        .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                        .toArray(String[]::new));
+    }
+    
+    static List<Airport> seedAirports(ConfigurableApplicationContext context) {
+        AirportService airportService = context.getBean(AirportService.class);
+        List<Airport> airports = new ArrayList<>();
+        for (String code : AIRPORT_CODES) {
+            airports.add(airportService.saveAirport(new Airport(code, code + " International", code, "Europe")));
+        }
+        return airports;
+    }
+    
+    // Goes through FlightService so the search index, read model and inventory see every flight
+    static Flight seedFlight(ConfigurableApplicationContext context, String number, Airport from, Airport to,
+                             LocalDateTime departure, int seats) {
+        return context.getBean(FlightService.class).saveFlight(new Flight(number, from, to, departure,
+                departure.plusHours(2), "A320", seats, new BigDecimal("120.00")));
+    }
+}
@@ -0,0 +1,68 @@
+package com.shubham.FlightManagementSystem.benchmarks;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Booking;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.service.BookingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// BookingService.createBooking end to end: reference, seat reservation, insert and commit
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateBookingBenchmark {
+    
+    private ConfigurableApplicationContext context;
+    
+    private BookingService bookingService;
+    
+    private Flight flight;
+    
+    @Setup
+    public void start() {
+        context = BenchmarkApplication.start();
+        bookingService = context.getBean(BookingService.class);
+        List<Airport> airports = BenchmarkApplication.seedAirports(context);
+        flight = BenchmarkApplication.seedFlight(context, "CB1", airports.get(0), airports.get(1),
+                LocalDateTime.now().plusDays(1).withNano(0), 2_000_000_000);
+    }
+    
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Booking createBooking() {
+        return bookingService.createBooking(newBooking());
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public Booking createBooking8Threads() {
+        return bookingService.createBooking(newBooking());
+    }
+    
+    private Booking newBooking() {
+        return new Booking(null, flight, "Benchmark Passenger", "benchmark@example.com", "+3100000000", 1, null);
+    }
+}
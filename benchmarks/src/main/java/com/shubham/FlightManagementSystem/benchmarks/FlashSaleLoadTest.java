@@ -0,0 +1,389 @@
+package com.shubham.FlightManagementSystem.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Flash sale against one node: a few flights, thousands of clients, open-loop traffic. Requests
+// are started on a fixed schedule whether or not earlier ones have answered, and latency is
+// measured from the scheduled start, so a stalled server shows up in the percentiles instead of
+// slowing the generator down (no coordinated omission). At the end every flight must satisfy
+// seats sold + seats available == total seats.
+//
+// Arguments are key=value pairs; the defaults are shown in Settings.parse. With no target the
+// application is started in-process, against jdbc-url if given (e.g. a local PostgreSQL) and
+// otherwise against an in-memory H2 database in PostgreSQL mode.
+//
+//   mvn package exec:exec@flash-sale -Dflashsale.args="rate=5000 duration=60 flights=3 seats=300"
+//   mvn package exec:exec@flash-sale -Dflashsale.args="target=http://localhost:8080 p99-budget-ms=150"
+public final class FlashSaleLoadTest {
+    
+    private static final ObjectMapper JSON = new ObjectMapper();
+    
+    // One hour at three significant digits, in nanoseconds
+    private static final long MAX_LATENCY = TimeUnit.HOURS.toNanos(1);
+    
+    private final Settings settings;
+    
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    
+    private final Map<Operation, Stats> stats = new LinkedHashMap<>();
+    
+    private final ConcurrentLinkedQueue<Long> cancellable = new ConcurrentLinkedQueue<>();
+    
+    private final List<JsonNode> flights = new ArrayList<>();
+    
+    private String baseUrl;
+    
+    private FlashSaleLoadTest(Settings settings) {
+        this.settings = settings;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.parse(args);
+        ConfigurableApplicationContext context = settings.target == null ? startApplication(settings) : null;
+        try {
+            FlashSaleLoadTest test = new FlashSaleLoadTest(settings);
+            test.baseUrl = context == null
+                    ? settings.target
+                    : "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            boolean passed = test.run();
+            if (!passed) {
+                System.exit(1);
+            }
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+    
+    private static ConfigurableApplicationContext startApplication(Settings settings) {
+        List<String> properties = new ArrayList<>(settings.properties);
+        if (settings.jdbcUrl != null) {
+            properties.addAll(List.of(
+                    "spring.datasource.url=" + settings.jdbcUrl,
+                    "spring.datasource.username=" + settings.jdbcUser,
+                    "spring.datasource.password=" + settings.jdbcPassword,
+                    "spring.datasource.driver-class-name=org.postgresql.Driver",
+                    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+                    "spring.jpa.hibernate.ddl-auto=update",
+                    "spring.sql.init.mode=always"));
+        }
+        return BenchmarkApplication.start(properties.toArray(String[]::new));
+    }
+    
+    private boolean run() throws Exception {
+        seed();
+        System.out.printf("Flash sale: %d flights x %d seats, %d clients, %d req/s for %ds (search %d%%, book %d%%, cancel %d%%)%n",
+                settings.flights, settings.seats, settings.clients, settings.rate, settings.durationSeconds,
+                settings.searchPercent, settings.bookPercent, settings.cancelPercent);
+        long elapsed = drive();
+        // Give write-behind seat counters and async read models time to settle before checking
+        Thread.sleep(settings.settleMillis);
+        report(elapsed);
+        boolean consistent = checkSeatInvariant();
+        double p99 = stats.get(Operation.BOOK).latency.getValueAtPercentile(99) / 1e6;
+        boolean withinBudget = p99 <= settings.p99BudgetMillis;
+        System.out.printf("%nBooking p99 %.2f ms vs budget %d ms: %s%n", p99, settings.p99BudgetMillis,
+                withinBudget ? "within budget" : "OVER BUDGET");
+        return consistent && withinBudget;
+    }
+    
+    private void seed() throws Exception {
+        String[] codes = BenchmarkApplication.AIRPORT_CODES;
+        for (int i = 0; i < 2; i++) {
+            // 400 when the airport already exists, which is fine
+            send(HttpRequest.newBuilder(uri("/api/airports"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(Map.of(
+                            "code", codes[i], "name", codes[i] + " International", "city", codes[i], "country", "Europe"))))
+                    .build());
+        }
+        LocalDateTime departure = LocalDateTime.now().plusDays(7).withNano(0);
+        String run = Long.toString(System.currentTimeMillis() % 1_000_000, 36).toUpperCase();
+        for (int i = 0; i < settings.flights; i++) {
+            Map<String, Object> flight = new LinkedHashMap<>();
+            flight.put("flightNumber", "FS" + run + i);
+            flight.put("departureAirport", Map.of("code", codes[0]));
+            flight.put("arrivalAirport", Map.of("code", codes[1]));
+            flight.put("departureTime", departure.plusHours(i).toString());
+            flight.put("arrivalTime", departure.plusHours(i + 2).toString());
+            flight.put("aircraftType", "A321");
+            flight.put("totalSeats", settings.seats);
+            flight.put("price", 49.99);
+            HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/flights"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(flight)))
+                    .build());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Could not create flight: HTTP " + response.statusCode() + " " + response.body());
+            }
+            flights.add(JSON.readTree(response.body()));
+        }
+    }
+    
+    // Open loop: request n starts at start + n / rate regardless of how earlier ones are doing
+    private long drive() throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / settings.rate;
+        long total = (long) settings.rate * settings.durationSeconds;
+        Semaphore inFlight = new Semaphore(settings.maxInFlight);
+        AtomicLong dropped = new AtomicLong();
+        long start = System.nanoTime();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long n = 0; n < total; n++) {
+                long intended = start + n * interval;
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = pickOperation();
+                if (!inFlight.tryAcquire()) {
+                    // The generator would run out of memory before the server answered; count it as a failure
+                    stats.get(operation).errors.incrementAndGet();
+                    dropped.incrementAndGet();
+                    continue;
+                }
+                requests.execute(() -> {
+                    try {
+                        execute(operation, intended);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        if (dropped.get() > 0) {
+            System.out.printf("%d requests were not sent because %d were already in flight%n", dropped.get(), settings.maxInFlight);
+        }
+        return System.nanoTime() - start;
+    }
+    
+    private void execute(Operation operation, long intended) {
+        Stats operationStats = stats.get(operation);
+        try {
+            HttpResponse<String> response = send(request(operation));
+            operationStats.latency.recordValue(Math.min(System.nanoTime() - intended, MAX_LATENCY));
+            int status = response.statusCode();
+            if (operation == Operation.BOOK && status == 201) {
+                cancellable.add(JSON.readTree(response.body()).get("id").asLong());
+                operationStats.succeeded.incrementAndGet();
+            } else if (operation == Operation.BOOK && status == 400) {
+                // Sold out: the expected outcome for most of a flash sale
+                operationStats.rejected.incrementAndGet();
+            } else if (status < 400) {
+                operationStats.succeeded.incrementAndGet();
+            } else {
+                operationStats.errors.incrementAndGet();
+            }
+        } catch (Exception e) {
+            operationStats.latency.recordValue(Math.min(System.nanoTime() - intended, MAX_LATENCY));
+            operationStats.errors.incrementAndGet();
+        }
+    }
+    
+    private HttpRequest request(Operation operation) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        JsonNode flight = flights.get(random.nextInt(flights.size()));
+        if (operation == Operation.CANCEL) {
+            Long bookingId = cancellable.poll();
+            if (bookingId != null) {
+                return HttpRequest.newBuilder(uri("/api/bookings/" + bookingId + "/cancel"))
+                        .PUT(HttpRequest.BodyPublishers.noBody())
+                        .build();
+            }
+            // Another cancel took the last booking; look at the flights instead
+            operation = Operation.SEARCH;
+        }
+        if (operation == Operation.SEARCH) {
+            return HttpRequest.newBuilder(uri("/api/flights/search"
+                    + "?departureCode=" + flight.get("departureAirport").get("code").asText()
+                    + "&arrivalCode=" + flight.get("arrivalAirport").get("code").asText()
+                    + "&departureDate=" + URLEncoder.encode(LocalDateTime.now().withNano(0).toString(), StandardCharsets.UTF_8)
+                    + "&seats=1"))
+                    .GET()
+                    .build();
+        }
+        int clientId = random.nextInt(settings.clients);
+        Map<String, Object> booking = new LinkedHashMap<>();
+        booking.put("bookingReference", "PENDING");
+        booking.put("flight", Map.of("id", flight.get("id").asLong(), "price", flight.get("price").decimalValue()));
+        booking.put("passengerName", "Client " + clientId);
+        booking.put("email", "client" + clientId + "@example.com");
+        booking.put("phoneNumber", "+3100" + String.format("%06d", clientId));
+        booking.put("numberOfSeats", 1 + random.nextInt(settings.maxSeatsPerBooking));
+        booking.put("totalAmount", 1);
+        return HttpRequest.newBuilder(uri("/api/bookings"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(booking)))
+                .build();
+    }
+    
+    private Operation pickOperation() {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        if (roll < settings.searchPercent) {
+            return Operation.SEARCH;
+        }
+        if (roll < settings.searchPercent + settings.bookPercent) {
+            return Operation.BOOK;
+        }
+        // Nothing to cancel until the first bookings land
+        return cancellable.isEmpty() ? Operation.SEARCH : Operation.CANCEL;
+    }
+    
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%n%-8s %9s %9s %9s %9s %9s %9s %9s %9s %9s %9s%n", "request", "sent", "ok", "sold out",
+                "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram all = new Histogram(MAX_LATENCY, 3);
+        long sent = 0;
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats operationStats = entry.getValue();
+            all.add(operationStats.latency);
+            sent += operationStats.latency.getTotalCount();
+            print(entry.getKey().name().toLowerCase(), operationStats.latency, operationStats.succeeded.get(),
+                    operationStats.rejected.get(), operationStats.errors.get(), seconds);
+        }
+        print("all", all, stats.values().stream().mapToLong(s -> s.succeeded.get()).sum(),
+                stats.values().stream().mapToLong(s -> s.rejected.get()).sum(),
+                stats.values().stream().mapToLong(s -> s.errors.get()).sum(), seconds);
+        long booked = stats.get(Operation.BOOK).succeeded.get();
+        System.out.printf("%nBookings per second: %.0f (%d requests completed in %.1f s)%n", booked / seconds, sent, seconds);
+    }
+    
+    private static void print(String name, Histogram latency, long succeeded, long rejected, long errors, double seconds) {
+        System.out.printf("%-8s %9d %9d %9d %9d %9.0f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, latency.getTotalCount(),
+                succeeded, rejected, errors, latency.getTotalCount() / seconds,
+                latency.getValueAtPercentile(50) / 1e6, latency.getValueAtPercentile(90) / 1e6,
+                latency.getValueAtPercentile(99) / 1e6, latency.getValueAtPercentile(99.9) / 1e6,
+                latency.getMaxValue() / 1e6);
+    }
+    
+    // Seats held by live bookings plus the flight's available seats must add up to its capacity
+    private boolean checkSeatInvariant() throws Exception {
+        boolean consistent = true;
+        System.out.printf("%n%-14s %8s %8s %10s %8s%n", "flight", "sold", "free", "total", "check");
+        for (JsonNode created : flights) {
+            long id = created.get("id").asLong();
+            JsonNode flight = JSON.readTree(send(HttpRequest.newBuilder(uri("/api/flights/" + id)).GET().build()).body());
+            JsonNode bookings = JSON.readTree(send(HttpRequest.newBuilder(uri("/api/bookings/flight/" + id)).GET().build()).body());
+            long sold = 0;
+            for (JsonNode booking : bookings) {
+                if (!"CANCELLED".equals(booking.get("status").asText())) {
+                    sold += booking.get("numberOfSeats").asLong();
+                }
+            }
+            long available = flight.get("availableSeats").asLong();
+            long total = flight.get("totalSeats").asLong();
+            boolean ok = sold + available == total && available >= 0;
+            consistent &= ok;
+            System.out.printf("%-14s %8d %8d %10d %8s%n", flight.get("flightNumber").asText(), sold, available, total,
+                    ok ? "ok" : "BROKEN");
+        }
+        return consistent;
+    }
+    
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+    
+    private enum Operation {
+        SEARCH, BOOK, CANCEL
+    }
+    
+    private static final class Stats {
+        
+        private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY, 3);
+        
+        private final AtomicLong succeeded = new AtomicLong();
+        
+        private final AtomicLong rejected = new AtomicLong();
+        
+        private final AtomicLong errors = new AtomicLong();
+    }
+    
+    private record Settings(String target, String jdbcUrl, String jdbcUser, String jdbcPassword, int rate,
+                            int durationSeconds, int flights, int seats, int clients, int maxSeatsPerBooking,
+                            int searchPercent, int bookPercent, int cancelPercent, int maxInFlight,
+                            long p99BudgetMillis, long settleMillis, List<String> properties) {
+        
+        // Unknown keys containing a dot are passed to the in-process application as properties,
+        // e.g. flight.inventory.enabled=true or spring.threads.virtual.enabled=true
+        static Settings parse(String[] args) {
+            Map<String, String> values = new LinkedHashMap<>();
+            List<String> properties = new ArrayList<>();
+            for (String arg : args) {
+                int equals = arg.indexOf('=');
+                if (equals < 0) {
+                    throw new IllegalArgumentException("Expected key=value but got " + arg);
+                }
+                String key = arg.substring(0, equals);
+                if (key.contains(".")) {
+                    properties.add(arg);
+                } else {
+                    values.put(key, arg.substring(equals + 1));
+                }
+            }
+            int search = Integer.parseInt(values.getOrDefault("search-percent", "60"));
+            int book = Integer.parseInt(values.getOrDefault("book-percent", "35"));
+            Settings settings = new Settings(
+                    values.get("target"),
+                    values.get("jdbc-url"),
+                    values.getOrDefault("jdbc-user", "postgres"),
+                    values.getOrDefault("jdbc-password", ""),
+                    Integer.parseInt(values.getOrDefault("rate", "2000")),
+                    Integer.parseInt(values.getOrDefault("duration", "30")),
+                    Integer.parseInt(values.getOrDefault("flights", "3")),
+                    Integer.parseInt(values.getOrDefault("seats", "500")),
+                    Integer.parseInt(values.getOrDefault("clients", "5000")),
+                    Integer.parseInt(values.getOrDefault("max-seats-per-booking", "4")),
+                    search,
+                    book,
+                    100 - search - book,
+                    // Each request in flight holds a connection, and in-process both of its ends: two file
+                    // descriptors. Kept under Tomcat's 8192 connections and a 20000 descriptor ulimit
+                    Integer.parseInt(values.getOrDefault("max-in-flight", "4000")),
+                    Long.parseLong(values.getOrDefault("p99-budget-ms", "250")),
+                    Long.parseLong(values.getOrDefault("settle-ms", "2000")),
+                    properties);
+            if (settings.cancelPercent < 0 || settings.rate <= 0 || settings.flights <= 0) {
+                throw new IllegalArgumentException("search-percent + book-percent must be at most 100, rate and flights positive");
+            }
+            return settings;
+        }
+    }
+}
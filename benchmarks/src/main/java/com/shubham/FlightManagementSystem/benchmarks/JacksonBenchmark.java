@@ -0,0 +1,118 @@
+package com.shubham.FlightManagementSystem.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Booking;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Serializing Flight and Booking lists with the application's own mappers (Boot settings plus
+// Blackbird) in each format the API negotiates. json-plain is the same JSON without Blackbird,
+// the baseline before it was added. Each trial prints its payload sizes, plain and gzipped.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonBenchmark {
+    
+    @Param({"10", "1000", "10000"})
+    public int size;
+    
+    @Param({"json-plain", "json", "cbor", "smile"})
+    public String format;
+    
+    private ConfigurableApplicationContext context;
+    
+    private ObjectMapper mapper;
+    
+    private List<Flight> flights;
+    
+    private List<Booking> bookings;
+    
+    @Setup
+    public void start() throws Exception {
+        context = BenchmarkApplication.start();
+        mapper = switch (format) {
+            case "cbor" -> context.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper();
+            case "smile" -> context.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper();
+            case "json-plain" -> Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            default -> context.getBean(ObjectMapper.class);
+        };
+        Airport from = airport(1L, "AMS");
+        Airport to = airport(2L, "FRA");
+        LocalDateTime departure = LocalDateTime.of(2026, 1, 1, 6, 0);
+        flights = new ArrayList<>(size);
+        bookings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Flight flight = new Flight("JB" + i, from, to, departure.plusMinutes(i * 7L), departure.plusMinutes(i * 7L + 90),
+                    "A320", 180, new BigDecimal("120.00"));
+            flight.setId((long) i);
+            flight.setAvailableSeats(180 - i % 180);
+            flights.add(flight);
+            Booking booking = new Booking("BK" + i, flight, "Passenger " + i, "passenger" + i + "@example.com",
+                    "+3100000000", 1 + i % 4, new BigDecimal("120.00"));
+            booking.setId((long) i);
+            bookings.add(booking);
+        }
+        System.out.printf("%n%s x %d: flights %d bytes (%d gzipped), bookings %d bytes (%d gzipped)%n", format, size,
+                flights().length, gzipped(flights()), bookings().length, gzipped(bookings()));
+    }
+    
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+    
+    @Benchmark
+    public byte[] flights() throws Exception {
+        return mapper.writeValueAsBytes(flights);
+    }
+    
+    @Benchmark
+    public byte[] bookings() throws Exception {
+        return mapper.writeValueAsBytes(bookings);
+    }
+    
+    private static int gzipped(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        }
+        return compressed.size();
+    }
+    
+    private static Airport airport(Long id, String code) {
+        Airport airport = new Airport(code, code + " International", code, "Europe");
+        airport.setId(id);
+        return airport;
+    }
+}
@@ -0,0 +1,75 @@
+package com.shubham.FlightManagementSystem.benchmarks;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.service.FlightService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// FlightService.reserveSeats with 1, 8 and 64 threads contending for one flight, through the
+// conditional UPDATE and through the in-memory seat inventory
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReserveSeatsBenchmark {
+    
+    @Param({"false", "true"})
+    public boolean inventory;
+    
+    private ConfigurableApplicationContext context;
+    
+    private FlightService flightService;
+    
+    private Long flightId;
+    
+    @Setup
+    public void start() {
+        context = BenchmarkApplication.start("flight.inventory.enabled=" + inventory);
+        flightService = context.getBean(FlightService.class);
+        List<Airport> airports = BenchmarkApplication.seedAirports(context);
+        // Enough seats that no run sells out
+        flightId = BenchmarkApplication.seedFlight(context, "RS1", airports.get(0), airports.get(1),
+                LocalDateTime.now().plusDays(1).withNano(0), 2_000_000_000).getId();
+    }
+    
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public boolean reserve1Thread() {
+        return flightService.reserveSeats(flightId, 1);
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public boolean reserve8Threads() {
+        return flightService.reserveSeats(flightId, 1);
+    }
+    
+    @Benchmark
+    @Threads(64)
+    public boolean reserve64Threads() {
+        return flightService.reserveSeats(flightId, 1);
+    }
+}
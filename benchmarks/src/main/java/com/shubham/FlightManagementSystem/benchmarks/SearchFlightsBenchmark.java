@@ -0,0 +1,75 @@
+package com.shubham.FlightManagementSystem.benchmarks;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import com.shubham.FlightManagementSystem.service.FlightService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// FlightService.searchFlights served by the in-memory search index and by the JPA query
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchFlightsBenchmark {
+    
+    @Param({"true", "false"})
+    public boolean searchIndex;
+    
+    @Param({"5000"})
+    public int flights;
+    
+    private ConfigurableApplicationContext context;
+    
+    private FlightService flightService;
+    
+    private LocalDateTime from;
+    
+    @Setup
+    public void start() {
+        context = BenchmarkApplication.start("flight.search-index.enabled=" + searchIndex);
+        flightService = context.getBean(FlightService.class);
+        List<Airport> airports = BenchmarkApplication.seedAirports(context);
+        from = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < flights; i++) {
+            Airport departure = airports.get(i % airports.size());
+            Airport arrival = airports.get((i / airports.size() + i + 1) % airports.size());
+            if (departure == arrival) {
+                arrival = airports.get((i + 1) % airports.size());
+            }
+            BenchmarkApplication.seedFlight(context, "SF" + i, departure, arrival, from.plusMinutes(i * 13L), 180);
+        }
+    }
+    
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<Flight> search() {
+        String[] codes = BenchmarkApplication.AIRPORT_CODES;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int departure = random.nextInt(codes.length);
+        int arrival = (departure + 1 + random.nextInt(codes.length - 1)) % codes.length;
+        return flightService.searchFlights(codes[departure], codes[arrival], from.plusHours(random.nextInt(48)), 1);
+    }
+}
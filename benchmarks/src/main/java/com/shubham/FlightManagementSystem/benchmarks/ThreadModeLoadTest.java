@@ -0,0 +1,123 @@
+package com.shubham.FlightManagementSystem.benchmarks;
+
+import com.shubham.FlightManagementSystem.entity.Airport;
+import com.shubham.FlightManagementSystem.entity.Flight;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Throughput and p99 of flight search and booking creation with Tomcat on platform threads
+// versus virtual threads behind the connection permits. Each of the clients sends its requests
+// back to back, so this measures what the server sustains rather than latency at a fixed rate
+// (FlashSaleLoadTest does that).
+//
+// Arguments are key=value pairs: clients (default 400) and requests per client (default 50).
+// Keys containing a dot are passed to both application runs as properties.
+//
+//   mvn package exec:exec@thread-mode -Dthreadmode.args="clients=800 requests=100"
+public final class ThreadModeLoadTest {
+    
+    // One hour at three significant digits, in nanoseconds
+    private static final long MAX_LATENCY = TimeUnit.HOURS.toNanos(1);
+    
+    private ThreadModeLoadTest() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = new LinkedHashMap<>();
+        List<String> properties = new ArrayList<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected key=value but got " + arg);
+            }
+            String key = arg.substring(0, equals);
+            if (key.contains(".")) {
+                properties.add(arg);
+            } else {
+                values.put(key, arg.substring(equals + 1));
+            }
+        }
+        int clients = Integer.parseInt(values.getOrDefault("clients", "400"));
+        int requests = Integer.parseInt(values.getOrDefault("requests", "50"));
+        
+        List<String> rows = new ArrayList<>();
+        for (boolean virtual : new boolean[] {false, true}) {
+            List<String> runProperties = new ArrayList<>(properties);
+            runProperties.add("spring.threads.virtual.enabled=" + virtual);
+            try (ConfigurableApplicationContext context = BenchmarkApplication.start(runProperties.toArray(String[]::new))) {
+                String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+                List<Airport> airports = BenchmarkApplication.seedAirports(context);
+                Flight flight = BenchmarkApplication.seedFlight(context, "TM100", airports.get(0), airports.get(1),
+                        LocalDateTime.now().plusDays(2).withNano(0), 1_000_000);
+                String mode = virtual ? "virtual" : "platform";
+                URI search = URI.create(baseUrl + "/api/flights/search?departureCode=" + airports.get(0).getCode()
+                        + "&arrivalCode=" + airports.get(1).getCode() + "&departureDate=" + flight.getDepartureTime().minusHours(1));
+                rows.add(run(mode, "GET  /api/flights/search", clients, requests,
+                        () -> HttpRequest.newBuilder(search).build()));
+                String booking = "{\"bookingReference\":\"PENDING\",\"flight\":{\"id\":" + flight.getId() + ",\"price\":"
+                        + flight.getPrice() + "},\"passengerName\":\"Load Test\",\"email\":\"load@example.com\","
+                        + "\"phoneNumber\":\"+3100000000\",\"numberOfSeats\":1,\"totalAmount\":1}";
+                rows.add(run(mode, "POST /api/bookings", clients, requests,
+                        () -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/bookings"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(booking)).build()));
+            }
+        }
+        System.out.printf("%n%-9s %-26s %10s %10s %10s %8s%n", "threads", "endpoint", "req/s", "p50 ms", "p99 ms", "errors");
+        rows.forEach(System.out::println);
+    }
+    
+    private static String run(String mode, String endpoint, int clients, int requests,
+                              Supplier<HttpRequest> request) throws Exception {
+        Histogram latency = new ConcurrentHistogram(MAX_LATENCY, 3);
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        long elapsed;
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                pool.execute(() -> {
+                    try {
+                        start.await();
+                        for (int r = 0; r < requests; r++) {
+                            long sent = System.nanoTime();
+                            HttpResponse<Void> response = client.send(request.get(), HttpResponse.BodyHandlers.discarding());
+                            latency.recordValue(Math.min(System.nanoTime() - sent, MAX_LATENCY));
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                });
+            }
+            long began = System.nanoTime();
+            start.countDown();
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.MINUTES);
+            elapsed = System.nanoTime() - began;
+        }
+        return String.format("%-9s %-26s %10.0f %10.2f %10.2f %8d", mode, endpoint,
+                latency.getTotalCount() / (elapsed / 1e9), latency.getValueAtPercentile(50) / 1e6,
+                latency.getValueAtPercentile(99) / 1e6, errors.get());
+    }
+}